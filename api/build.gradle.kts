@@ -0,0 +1,66 @@
+plugins {
+    id("java-library")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+val protocolVersion = "1.21.11-SNAPSHOT"
+val adventureVer = "4.25.0"
+
+repositories {
+    mavenCentral()
+    maven("https://jitpack.io")
+
+    // McProtocol
+    maven("https://repo.opencollab.dev/main/")
+}
+
+dependencies {
+    // McProtocol
+    api("org.geysermc.mcprotocollib:protocol:$protocolVersion")
+    implementation("net.kyori:adventure-text-serializer-gson:$adventureVer")
+    // Provided by the server in the plugin, headless and benchmarks bring their own
+    compileOnly("net.kyori:adventure-text-serializer-legacy:$adventureVer")
+    compileOnly("net.kyori:adventure-text-serializer-plain:$adventureVer")
+    jmh("net.kyori:adventure-text-serializer-legacy:$adventureVer")
+    jmh("net.kyori:adventure-text-serializer-plain:$adventureVer")
+
+    // Json
+    implementation("com.googlecode.json-simple:json-simple:1.1")
+
+    compileOnly("org.jetbrains:annotations:26.0.2")
+
+    // Tests
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+// Benchmarks of the bot hot paths (./gradlew jmh)
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    // Normalized allocation per operation next to throughput
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
+
+tasks {
+    compileJava {
+        options.release = 21
+        options.compilerArgs.add("-Xlint:unchecked")
+        options.compilerArgs.add("-Xlint:deprecation")
+    }
+    test {
+        useJUnitPlatform()
+    }
+    javadoc {
+        title = "StressTestBots API"
+        options.encoding = Charsets.UTF_8.name()
+        (options as StandardJavadocDocletOptions).links(
+            "https://jd.advntr.dev/api/4.17.0/",
+            "https://repo.opencollab.dev/javadoc/maven-snapshots/org/geysermc/mcprotocollib/protocol/$protocolVersion/raw"
+        )
+    }
+}
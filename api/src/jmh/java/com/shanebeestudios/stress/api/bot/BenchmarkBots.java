@@ -0,0 +1,60 @@
+package com.shanebeestudios.stress.api.bot;
+
+import com.shanebeestudios.stress.api.platform.HeadlessPlatform;
+import com.shanebeestudios.stress.api.util.LogHandler;
+import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+
+/**
+ * Creates bot managers and bots for benchmarks
+ * <p>Bots are registered but never connected, the timers of the bot manager are stopped
+ * so they don't run next to the benchmark.</p>
+ */
+public final class BenchmarkBots {
+
+    /**
+     * Log handler which drops all messages
+     */
+    public static final LogHandler SILENT = new LogHandler() {
+        @Override
+        public void log(String message) {
+        }
+
+        @Override
+        public String colorize(String message) {
+            return message;
+        }
+    };
+
+    private BenchmarkBots() {
+    }
+
+    /**
+     * Create a bot manager without gravity, using one packet thread
+     *
+     * @return New bot manager
+     */
+    public static BotManager createBotManager() {
+        Logger.setHandler(SILENT);
+        BotManager botManager = new BotManager(3000, false, Utils.createInetAddress("127.0.0.1", 25565),
+            null, "", 1, new HeadlessPlatform());
+        botManager.getGravityTimer().stopTimer();
+        return botManager;
+    }
+
+    /**
+     * Create a registered bot which is not connected
+     *
+     * @param botManager Bot manager to register the bot in
+     * @param name       Name of bot
+     * @return New bot
+     */
+    public static Bot createBot(BotManager botManager, String name) {
+        Bot bot = new Bot(botManager, name, botManager.getInetAddr(), null);
+        botManager.getRegistry().add(bot);
+        bot.setLastPosition(0, 64, 0);
+        botManager.getRegistry().getKinematics().applyPending();
+        return bot;
+    }
+
+}
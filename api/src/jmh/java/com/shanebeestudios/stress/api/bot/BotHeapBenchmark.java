@@ -0,0 +1,80 @@
+package com.shanebeestudios.stress.api.bot;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained by each bot, reported as the {@code bytesPerBot} counter
+ * <p>Measures registered bots which are not connected, the heap of a session's channel is not included.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class BotHeapBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"1000", "10000"})
+    public int bots;
+
+    private BotManager botManager;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytesPerBot;
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        this.botManager = BenchmarkBots.createBotManager();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        this.botManager.shutdown();
+    }
+
+    @Benchmark
+    public Bot[] retainedHeap(Counters counters) {
+        long before = usedHeap();
+        Bot[] created = new Bot[this.bots];
+        for (int i = 0; i < this.bots; i++) {
+            created[i] = BenchmarkBots.createBot(this.botManager, "Bench" + i);
+        }
+        long after = usedHeap();
+        counters.bytesPerBot = (after - before) / this.bots;
+        for (Bot bot : created) {
+            this.botManager.getRegistry().remove(bot);
+        }
+        return created;
+    }
+
+    private static long usedHeap() {
+        // A few runs, so objects with finalizers and soft references are gone
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+}
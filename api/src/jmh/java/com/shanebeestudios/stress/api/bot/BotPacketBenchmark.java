@@ -0,0 +1,73 @@
+package com.shanebeestudios.stress.api.bot;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation and encoding of the packets bots send most
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BotPacketBenchmark {
+
+    private BotManager botManager;
+    private BotKinematics kinematics;
+    private Bot bot;
+    private ByteBuf buf;
+    private double offset = 0.1;
+
+    @Setup
+    public void setup() {
+        this.botManager = BenchmarkBots.createBotManager();
+        this.kinematics = this.botManager.getRegistry().getKinematics();
+        this.bot = BenchmarkBots.createBot(this.botManager, "Bench");
+        this.buf = Unpooled.buffer(256);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.buf.release();
+        this.botManager.shutdown();
+    }
+
+    @Benchmark
+    public MinecraftPacket chat() {
+        return Bot.createChatPacket("Hello from a benchmark");
+    }
+
+    @Benchmark
+    public MinecraftPacket command() {
+        return Bot.createChatPacket("/help");
+    }
+
+    @Benchmark
+    public MinecraftPacket moveTo() {
+        // Back and forth, so the bot stays near its start
+        this.offset = -this.offset;
+        this.bot.moveTo(this.bot.getX() + this.offset, this.bot.getY(), this.bot.getZ(), 90, 0);
+        return this.bot.createMovementPacket(this.kinematics.takeMovement(this.bot.getId()));
+    }
+
+    @Benchmark
+    public ByteBuf encodeMovement() {
+        this.buf.clear();
+        this.offset = -this.offset;
+        this.bot.moveTo(this.bot.getX() + this.offset, this.bot.getY(), this.bot.getZ());
+        MinecraftPacket packet = this.bot.createMovementPacket(this.kinematics.takeMovement(this.bot.getId()));
+        if (packet != null) packet.serialize(this.buf);
+        return this.buf;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.shanebeestudios.stress.api.bot;
+
+import org.cloudburstmc.math.vector.Vector3i;
+import org.geysermc.mcprotocollib.network.Session;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.protocol.data.game.level.block.BlockChangeEntry;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundPongResponsePacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.entity.player.ClientboundSetHealthPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundBlockUpdatePacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of received packets by the {@link PacketListener}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PacketListenerBenchmark {
+
+    private BotManager botManager;
+    private PacketListener listener;
+    private Session session;
+    private Packet pong;
+    private Packet blockUpdate;
+    private Packet unhandled;
+
+    @Setup
+    public void setup() {
+        this.botManager = BenchmarkBots.createBotManager();
+        Bot bot = BenchmarkBots.createBot(this.botManager, "Bench");
+        this.session = bot.getClient();
+        this.listener = new PacketListener(bot);
+        this.pong = new ClientboundPongResponsePacket(System.nanoTime());
+        this.blockUpdate = new ClientboundBlockUpdatePacket(new BlockChangeEntry(Vector3i.from(0, 64, 0), 1));
+        this.unhandled = new ClientboundSetHealthPacket(20, 20, 5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.botManager.shutdown();
+    }
+
+    @Benchmark
+    public void pong() {
+        this.listener.packetReceived(this.session, this.pong);
+    }
+
+    @Benchmark
+    public void blockUpdate() {
+        this.listener.packetReceived(this.session, this.blockUpdate);
+    }
+
+    @Benchmark
+    public void unhandled() {
+        this.listener.packetReceived(this.session, this.unhandled);
+    }
+
+}
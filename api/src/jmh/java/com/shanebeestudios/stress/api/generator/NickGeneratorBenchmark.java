@@ -0,0 +1,45 @@
+package com.shanebeestudios.stress.api.generator;
+
+import com.shanebeestudios.stress.api.bot.BenchmarkBots;
+import com.shanebeestudios.stress.api.util.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nicknames for new bots, from the built in file or random
+ * <p>Keeps a window of names in use, like bots joining and leaving.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NickGeneratorBenchmark {
+
+    @Param({"true", "false"})
+    public boolean real;
+
+    private final String[] window = new String[1024];
+    private NickGenerator nickGenerator;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Logger.setHandler(BenchmarkBots.SILENT);
+        this.nickGenerator = new NickGenerator(null, "", this.real);
+    }
+
+    @Benchmark
+    public String nextNick() {
+        int slot = this.cursor++ & (this.window.length - 1);
+        if (this.window[slot] != null) this.nickGenerator.release(this.window[slot]);
+        return this.window[slot] = this.nickGenerator.nextNick();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.shanebeestudios.stress.api.timer;
+
+import com.shanebeestudios.stress.api.bot.BenchmarkBots;
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One client tick of all bots, each bot walking back and forth along its own direction
+ * <p>Bots are not connected, so movement packets are created but never written.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GravityTimerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int bots;
+
+    private BotManager botManager;
+    private GravityTimer gravityTimer;
+
+    @Setup
+    public void setup() {
+        this.botManager = BenchmarkBots.createBotManager();
+        this.gravityTimer = this.botManager.getGravityTimer();
+        for (int i = 0; i < this.bots; i++) {
+            Bot bot = BenchmarkBots.createBot(this.botManager, "Bench" + i);
+            bot.setConnected(true);
+            double angle = Math.PI * 2 * i / this.bots;
+            double x = Math.cos(angle) * Bot.WALK_SPEED;
+            double z = Math.sin(angle) * Bot.WALK_SPEED;
+            bot.setBehaviour(b -> {
+                // Turn around once 8 blocks out
+                double direction = b.getX() * x + b.getZ() * z > 8 * Bot.WALK_SPEED ? -1 : 1;
+                b.move(x * direction, 0, z * direction);
+                return true;
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.botManager.shutdown();
+    }
+
+    @Benchmark
+    public void tick() {
+        this.gravityTimer.tick();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.shanebeestudios.stress.api.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of log messages
+ * <p>The handler strips colour codes like the console handler does, but doesn't print the message</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerBenchmark {
+
+    private int count;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        Logger.setHandler(new LogHandler() {
+            @Override
+            public void log(String message) {
+                blackhole.consume(colorize(message));
+            }
+
+            @Override
+            public String colorize(String message) {
+                return Logger.stripColors(message);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        Logger.setHandler(null);
+    }
+
+    @Benchmark
+    public void info() {
+        Logger.info("Bot '&b%s&7' created", "Bench");
+    }
+
+    @Benchmark
+    public void infoNumbers() {
+        Logger.info("Bots: &b%s&7 connected of &b%s&7, drift &e%.1fms", this.count++, 1000, 1.5);
+    }
+
+    @Benchmark
+    public String format() {
+        return Logger.format("Changed behaviour of &b%s&7 bots", this.count++);
+    }
+
+    @Benchmark
+    public void warn() {
+        Logger.warn("Agent &b%s&7 is lost, moving its &b%s&7 bots", 1, this.count++);
+    }
+
+}
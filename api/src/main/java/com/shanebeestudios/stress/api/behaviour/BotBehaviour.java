@@ -0,0 +1,20 @@
+package com.shanebeestudios.stress.api.behaviour;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+/**
+ * Movement behaviour of a bot
+ * <p>Behaviours of all bots are ticked every client tick (50ms) by one shared timer,
+ * they should move the bot with {@link Bot#walkTowards(double, double, double)}.</p>
+ */
+public interface BotBehaviour {
+
+    /**
+     * Tick this behaviour
+     *
+     * @param bot Bot this behaviour belongs to
+     * @return False once this behaviour is finished and should be removed
+     */
+    boolean tick(Bot bot);
+
+}
@@ -0,0 +1,69 @@
+package com.shanebeestudios.stress.api.behaviour;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import org.cloudburstmc.math.vector.Vector3d;
+
+import java.util.function.Supplier;
+
+/**
+ * Follow a moving target, keeping some distance
+ */
+public class FollowBehaviour implements BotBehaviour {
+
+    private final Supplier<Vector3d> target;
+    private final double distance;
+    private final double speed;
+
+    /**
+     * Create a follow behaviour
+     * <p>The target supplier is called from the client tick thread, it should not touch the Bukkit API</p>
+     *
+     * @param target   Position to follow, the behaviour finishes once this returns null
+     * @param distance Distance to keep from the target
+     * @param speed    Blocks per tick to walk
+     */
+    public FollowBehaviour(Supplier<Vector3d> target, double distance, double speed) {
+        this.target = target;
+        this.distance = distance;
+        this.speed = speed;
+    }
+
+    /**
+     * Create a behaviour following another bot
+     *
+     * @param leader   Bot to follow
+     * @param distance Distance to keep from the leader
+     * @param speed    Blocks per tick to walk
+     * @return Follow behaviour
+     */
+    public static FollowBehaviour following(Bot leader, double distance, double speed) {
+        return new FollowBehaviour(() -> leader.isConnected() ? Vector3d.from(leader.getX(), leader.getY(), leader.getZ()) : null,
+            distance, speed);
+    }
+
+    /**
+     * Get the position this behaviour follows
+     *
+     * @return Target supplier
+     */
+    public Supplier<Vector3d> getTarget() {
+        return this.target;
+    }
+
+    @Override
+    public boolean tick(Bot bot) {
+        Vector3d target = this.target.get();
+        if (target == null) return false;
+
+        double x = target.getX() - bot.getX();
+        double z = target.getZ() - bot.getZ();
+        double length = Math.sqrt(x * x + z * z);
+        if (length > this.distance) {
+            // Walk up to the point at the kept distance from the target
+            double scale = (length - this.distance) / length;
+            bot.walkTowards(bot.getX() + x * scale, bot.getZ() + z * scale, this.speed);
+        }
+        return true;
+    }
+
+}
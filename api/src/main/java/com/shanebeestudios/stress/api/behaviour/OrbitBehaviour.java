@@ -0,0 +1,50 @@
+package com.shanebeestudios.stress.api.behaviour;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+/**
+ * Walk in a circle around a center point
+ */
+public class OrbitBehaviour implements BotBehaviour {
+
+    private final double centerX, centerZ;
+    private final double radius;
+    private final double speed;
+    private double angle = Double.NaN;
+
+    /**
+     * Create an orbit behaviour
+     *
+     * @param centerX X coord of center
+     * @param centerZ Z coord of center
+     * @param radius  Radius of circle
+     * @param speed   Blocks per tick to walk
+     */
+    public OrbitBehaviour(double centerX, double centerZ, double radius, double speed) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.speed = speed;
+    }
+
+    @Override
+    public boolean tick(Bot bot) {
+        if (Double.isNaN(this.angle)) {
+            // Start at the point of the circle closest to the bot
+            this.angle = Math.atan2(bot.getZ() - this.centerZ, bot.getX() - this.centerX);
+        }
+        double x = this.centerX + Math.cos(this.angle) * this.radius;
+        double z = this.centerZ + Math.sin(this.angle) * this.radius;
+        double distanceX = x - bot.getX();
+        double distanceZ = z - bot.getZ();
+        // Only move the point along once the bot caught up with it
+        if (distanceX * distanceX + distanceZ * distanceZ <= this.speed * this.speed) {
+            this.angle += this.speed / this.radius;
+            x = this.centerX + Math.cos(this.angle) * this.radius;
+            z = this.centerZ + Math.sin(this.angle) * this.radius;
+        }
+        bot.walkTowards(x, z, this.speed);
+        return true;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.shanebeestudios.stress.api.behaviour;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Walk to random spots around the position the bot started at, with short pauses in between
+ */
+public class RandomWalkBehaviour implements BotBehaviour {
+
+    private final double radius;
+    private final double speed;
+    private double startX, startZ;
+    private double targetX, targetZ;
+    private boolean started;
+    private boolean walking;
+    private int pauseTicks;
+
+    /**
+     * Create a random walk behaviour
+     *
+     * @param radius Max distance from the start position
+     * @param speed  Blocks per tick to walk
+     */
+    public RandomWalkBehaviour(double radius, double speed) {
+        this.radius = radius;
+        this.speed = speed;
+    }
+
+    @Override
+    public boolean tick(Bot bot) {
+        if (!this.started) {
+            this.startX = bot.getX();
+            this.startZ = bot.getZ();
+            this.started = true;
+        }
+        if (this.pauseTicks > 0) {
+            this.pauseTicks--;
+            return true;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (!this.walking) {
+            double angle = random.nextDouble(Math.PI * 2);
+            double distance = random.nextDouble(this.radius);
+            this.targetX = this.startX + Math.cos(angle) * distance;
+            this.targetZ = this.startZ + Math.sin(angle) * distance;
+            this.walking = true;
+        }
+        // Stop when the target is reached or something is in the way
+        if (!bot.walkTowards(this.targetX, this.targetZ, this.speed)) {
+            this.walking = false;
+            this.pauseTicks = random.nextInt(10, 60);
+        }
+        return true;
+    }
+
+}
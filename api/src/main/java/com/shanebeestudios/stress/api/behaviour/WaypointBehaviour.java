@@ -0,0 +1,47 @@
+package com.shanebeestudios.stress.api.behaviour;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import org.cloudburstmc.math.vector.Vector3d;
+
+import java.util.List;
+
+/**
+ * Walk along a list of waypoints
+ */
+public class WaypointBehaviour implements BotBehaviour {
+
+    private final List<Vector3d> waypoints;
+    private final boolean loop;
+    private final double speed;
+    private int index;
+
+    /**
+     * Create a waypoint behaviour
+     * <p>Only the X and Z coords of waypoints are used, bots follow the ground</p>
+     *
+     * @param waypoints Waypoints to walk along
+     * @param loop      Whether to start over after the last waypoint
+     * @param speed     Blocks per tick to walk
+     */
+    public WaypointBehaviour(List<Vector3d> waypoints, boolean loop, double speed) {
+        if (waypoints.isEmpty()) throw new IllegalArgumentException("Waypoints cannot be empty");
+        this.waypoints = List.copyOf(waypoints);
+        this.loop = loop;
+        this.speed = speed;
+    }
+
+    @Override
+    public boolean tick(Bot bot) {
+        Vector3d waypoint = this.waypoints.get(this.index);
+        if (!bot.walkTowards(waypoint.getX(), waypoint.getZ(), this.speed)) {
+            // Reached (or stuck at) this waypoint, move on to the next one
+            this.index++;
+            if (this.index >= this.waypoints.size()) {
+                if (!this.loop) return false;
+                this.index = 0;
+            }
+        }
+        return true;
+    }
+
+}
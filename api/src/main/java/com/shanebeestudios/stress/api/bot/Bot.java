@@ -0,0 +1,660 @@
+package com.shanebeestudios.stress.api.bot;
+
+import com.shanebeestudios.stress.api.behaviour.BotBehaviour;
+import com.shanebeestudios.stress.api.metrics.LatencyStats;
+import com.shanebeestudios.stress.api.world.HeightmapCache;
+import io.netty.channel.Channel;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.geysermc.mcprotocollib.network.ProxyInfo;
+import org.geysermc.mcprotocollib.network.Session;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.network.session.ClientNetworkSession;
+import org.geysermc.mcprotocollib.protocol.MinecraftConstants;
+import org.geysermc.mcprotocollib.protocol.MinecraftProtocol;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.ServerboundChatCommandPacket;
+import org.geysermc.mcprotocollib.protocol.data.game.entity.player.Hand;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.ServerboundChatPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.inventory.ServerboundSetCarriedItemPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.player.ServerboundMovePlayerPosPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.player.ServerboundMovePlayerPosRotPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.player.ServerboundMovePlayerRotPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.player.ServerboundSwingPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.player.ServerboundUseItemPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Represents a bot that can join the server
+ * <p>Position and rotation are changed on the client tick, where {@link BotBehaviour behaviours} run.
+ * Changes made from other threads are handed off to the start of the next client tick,
+ * and are sent to the server with that tick.</p>
+ */
+@SuppressWarnings("unused")
+public class Bot {
+
+    /**
+     * Vanilla walking speed in blocks per tick
+     */
+    public static final double WALK_SPEED = 0.2158;
+    /**
+     * Vanilla sprinting speed in blocks per tick
+     */
+    public static final double SPRINT_SPEED = 0.2806;
+    /**
+     * Max distance the server accepts for a single move packet
+     */
+    public static final double MAX_MOVE = 8;
+    // Highest step the bot can walk (or jump) up
+    private static final double MAX_STEP = 1.25;
+    // Bots never acknowledge messages, the packet only reads this so all messages share it
+    private static final BitSet NO_ACKNOWLEDGED = new BitSet();
+
+    private final BotManager botManager;
+    private final String nickname;
+    private final UUID uuid;
+    private final ClientNetworkSession client;
+    private volatile int id = -1;
+    private final BotKinematics kinematics;
+    private String world = "";
+    private int minY;
+    private final Set<Long> loadedChunks = ConcurrentHashMap.newKeySet();
+    private volatile boolean connected;
+    private volatile BotBehaviour behaviour;
+    private final LatencyStats latencyStats;
+    private volatile long connectTime;
+    private final List<PacketWaiter<?>> packetWaiters = new CopyOnWriteArrayList<>();
+    // Sequence of block/item interactions, acknowledged by the server
+    private final AtomicInteger interactSequence = new AtomicInteger();
+    private volatile boolean manualDisconnecting = false;
+
+    /**
+     * Create an offline server bot
+     *
+     * @param botManager Instance of bot manager
+     * @param nickname   Name of the bot
+     * @param address    Address the bot will connect to
+     * @param proxy      Proxy if available
+     */
+    public Bot(@NotNull BotManager botManager, @NotNull String nickname, @NotNull InetSocketAddress address, @Nullable ProxyInfo proxy) {
+        this.botManager = botManager;
+        this.kinematics = botManager.getRegistry().getKinematics();
+        this.latencyStats = new LatencyStats(botManager.getLatencyStats(), 3);
+        this.nickname = nickname;
+        // Same UUID the server gives offline players
+        this.uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + nickname).getBytes(StandardCharsets.UTF_8));
+
+        botManager.logBotCreated(nickname);
+        MinecraftProtocol protocol = new MinecraftProtocol(nickname);
+        // All bots share the packet threads of the bot manager
+        this.client = new ClientNetworkSession(address, protocol, botManager.getPacketExecutorPool().nextExecutor(), null, proxy);
+    }
+
+    /**
+     * Connect the bot to the server
+     * <p>Connects right away without waiting for the connection to open,
+     * use the {@link BotManager#getLoginPipeline() login pipeline} to limit logins at the same time</p>
+     */
+    public void connect() {
+        // We'll manage the keep alive, to create a fake letancy
+        this.client.setFlag(MinecraftConstants.AUTOMATIC_KEEP_ALIVE_MANAGEMENT, false);
+        this.client.addListener(new PacketListener(this));
+        this.connectTime = System.nanoTime();
+        // Phases are timed by the packet listener, no need to block here
+        this.client.connect(false);
+    }
+
+    /**
+     * Get the bot manager
+     *
+     * @return Bot manager
+     */
+    public BotManager getBotManager() {
+        return this.botManager;
+    }
+
+    /**
+     * Get the session client this bot connects from
+     *
+     * @return Session client
+     */
+    public Session getClient() {
+        return this.client;
+    }
+
+    /**
+     * Get the protocol of this bot's session
+     *
+     * @return Protocol of session
+     */
+    public MinecraftProtocol getProtocol() {
+        return (MinecraftProtocol) this.client.getPacketProtocol();
+    }
+
+    /**
+     * Get the netty channel of this bot's session
+     *
+     * @return Channel of session, null if not connected yet
+     * @hidden
+     */
+    @Nullable
+    public Channel getChannel() {
+        return this.client.getChannel();
+    }
+
+    /**
+     * Get the ID of this bot
+     * <p>IDs are handed out by the {@link BotRegistry} and may be re-used after a bot is removed</p>
+     *
+     * @return ID of this bot, -1 if not registered
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the latency stats measured by this bot
+     * <p>Values are also recorded into the {@link BotManager#getLatencyStats() global stats}</p>
+     *
+     * @return Latency stats of this bot
+     */
+    public LatencyStats getLatencyStats() {
+        return this.latencyStats;
+    }
+
+    /**
+     * Get the time this bot started connecting
+     *
+     * @return Time from {@link System#nanoTime()} when connecting started
+     */
+    public long getConnectTime() {
+        return this.connectTime;
+    }
+
+    /**
+     * Get the name of this bot
+     *
+     * @return Name of this bot
+     */
+    public String getNickname() {
+        return this.nickname;
+    }
+
+    /**
+     * Get the UUID of this bot
+     * <p>This is the offline mode UUID the server gives this bot</p>
+     *
+     * @return UUID of this bot
+     */
+    public UUID getUniqueId() {
+        return this.uuid;
+    }
+
+    /**
+     * Check if the bot is connected
+     *
+     * @return True if connected else false
+     */
+    public boolean isConnected() {
+        return this.connected;
+    }
+
+    /**
+     * Set whether the bot is connected to the server
+     *
+     * @param connected Bot is connected to the server
+     */
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+    }
+
+    /**
+     * Check if the bot was manually disconnected
+     *
+     * @return True if manually disconnected, false if removed by server
+     */
+    public boolean isManualDisconnecting() {
+        return this.manualDisconnecting;
+    }
+
+    /**
+     * Send a chat message from the bot
+     *
+     * @param text Message (or command) to send
+     */
+    public void sendChat(String text) {
+        this.client.send(createChatPacket(text));
+    }
+
+    /**
+     * Create the packet to send a chat message or command
+     *
+     * @param text Message (or command) to send
+     * @return Chat or command packet
+     * @hidden
+     */
+    public static MinecraftPacket createChatPacket(String text) {
+        if (text.startsWith("/")) {
+            // Send command
+            return new ServerboundChatCommandPacket(text.substring(1));
+        }
+        // timeStamp will provide when this message was sent by the user. If this value was not set or was set to 0,
+        // The server console will print out that the message was "expired". To avoid this, set timeStamp as now.
+        return new ServerboundChatPacket(text, System.currentTimeMillis(), 0L, null, 0, NO_ACKNOWLEDGED, 0);
+    }
+
+    /**
+     * Swing the main hand of the bot
+     */
+    public void swingArm() {
+        this.client.send(new ServerboundSwingPacket(Hand.MAIN_HAND));
+    }
+
+    /**
+     * Change the held hotbar slot of the bot
+     *
+     * @param slot Hotbar slot (0 - 8)
+     */
+    public void setHeldSlot(int slot) {
+        this.client.send(new ServerboundSetCarriedItemPacket(slot));
+    }
+
+    /**
+     * Use the item in the main hand of the bot
+     */
+    public void useItem() {
+        int id = this.id;
+        this.client.send(new ServerboundUseItemPacket(Hand.MAIN_HAND, this.interactSequence.incrementAndGet(),
+            this.kinematics.getYaw(id), this.kinematics.getPitch(id)));
+    }
+
+    /**
+     * Look up the ground below this bot from the heightmap
+     *
+     * @hidden
+     */
+    public void updateGroundY() {
+        if (!this.connected) return;
+        int id = this.id;
+        double groundY = this.botManager.getHeightmapCache().getGroundY(this.world, this.kinematics.getX(id), this.kinematics.getZ(id));
+        this.kinematics.setGroundY(id, groundY);
+    }
+
+    /**
+     * Get the X coord of this bot
+     *
+     * @return X coord
+     */
+    public double getX() {
+        return this.kinematics.getX(this.id);
+    }
+
+    /**
+     * Get the Y coord of this bot
+     *
+     * @return Y coord
+     */
+    public double getY() {
+        return this.kinematics.getY(this.id);
+    }
+
+    /**
+     * Get the Z coord of this bot
+     *
+     * @return Z coord
+     */
+    public double getZ() {
+        return this.kinematics.getZ(this.id);
+    }
+
+    /**
+     * Get the yaw this bot is looking at
+     *
+     * @return Yaw of bot
+     */
+    public float getYaw() {
+        return this.kinematics.getYaw(this.id);
+    }
+
+    /**
+     * Check if this bot is standing on the ground
+     *
+     * @return True if on ground
+     */
+    public boolean isOnGround() {
+        return this.kinematics.hasFlag(this.id, BotKinematics.ON_GROUND);
+    }
+
+    /**
+     * Get the name of the world this bot is in
+     *
+     * @return Name of world
+     */
+    public String getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Set the world the bot is in
+     * <p>Releases all chunks of the previous world</p>
+     *
+     * @param world Name of world
+     * @param minY  Minimum Y of world
+     * @hidden
+     */
+    public void setWorld(String world, int minY) {
+        if (!this.world.equals(world)) releaseChunks();
+        this.world = world;
+        this.minY = minY;
+    }
+
+    /**
+     * Handle a chunk loaded by the server
+     * <p>A chunk sent again replaces the heights of the one loaded before</p>
+     *
+     * @param chunkX    X coord of chunk
+     * @param chunkZ    Z coord of chunk
+     * @param heightmap Packed motion blocking heightmap of chunk
+     * @hidden
+     */
+    public void chunkLoaded(int chunkX, int chunkZ, long[] heightmap) {
+        if (!this.botManager.hasGravity()) return;
+        HeightmapCache cache = this.botManager.getHeightmapCache();
+        if (this.loadedChunks.add(HeightmapCache.chunkKey(chunkX, chunkZ))) {
+            cache.loadChunk(this.world, chunkX, chunkZ, heightmap, this.minY);
+        } else {
+            cache.reloadChunk(this.world, chunkX, chunkZ, heightmap, this.minY);
+        }
+    }
+
+    /**
+     * Handle a chunk unloaded by the server
+     *
+     * @param chunkX X coord of chunk
+     * @param chunkZ Z coord of chunk
+     * @hidden
+     */
+    public void chunkUnloaded(int chunkX, int chunkZ) {
+        if (this.loadedChunks.remove(HeightmapCache.chunkKey(chunkX, chunkZ))) {
+            this.botManager.getHeightmapCache().unloadChunk(this.world, chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Release all chunks this bot has loaded
+     *
+     * @hidden
+     */
+    public void releaseChunks() {
+        HeightmapCache cache = this.botManager.getHeightmapCache();
+        for (Long key : this.loadedChunks) {
+            cache.unloadChunk(this.world, (int) (key >> 32), (int) (long) key);
+        }
+        this.loadedChunks.clear();
+    }
+
+    /**
+     * Handle a block change from the server
+     * <p>Used to keep the heightmap up to date</p>
+     *
+     * @param block      Location of block that changed
+     * @param blockState New block state ID of the block
+     */
+    public void blockChange(Vector3i block, int blockState) {
+        if (!this.loadedChunks.contains(HeightmapCache.chunkKey(block.getX() >> 4, block.getZ() >> 4))) return;
+        HeightmapCache cache = this.botManager.getHeightmapCache();
+        cache.blockChange(this.world, block.getX(), block.getY(), block.getZ(), cache.getPassableStates().isPassable(blockState));
+    }
+
+    /**
+     * Get the current movement behaviour of this bot
+     *
+     * @return Current behaviour, null if none
+     */
+    @Nullable
+    public BotBehaviour getBehaviour() {
+        return this.behaviour;
+    }
+
+    /**
+     * Set the movement behaviour of this bot
+     *
+     * @param behaviour Behaviour to use, null to stand still
+     */
+    public void setBehaviour(@Nullable BotBehaviour behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    /**
+     * Tick the movement behaviour of this bot
+     *
+     * @hidden
+     */
+    public void tickBehaviour() {
+        BotBehaviour behaviour = this.behaviour;
+        if (behaviour == null || !this.connected || !this.kinematics.hasFlag(this.id, BotKinematics.POSITION_KNOWN)) return;
+        if (!behaviour.tick(this) && this.behaviour == behaviour) {
+            this.behaviour = null;
+        }
+    }
+
+    /**
+     * Walk one step towards a location, following the ground where it is known
+     *
+     * @param x     X coord to walk to
+     * @param z     Z coord to walk to
+     * @param speed Max blocks to walk (capped at 8)
+     * @return False if already at the location or the way is blocked
+     */
+    public boolean walkTowards(double x, double z, double speed) {
+        int id = this.id;
+        double currentX = this.kinematics.getX(id);
+        double currentZ = this.kinematics.getZ(id);
+        double distanceX = x - currentX;
+        double distanceZ = z - currentZ;
+        double length = Math.sqrt(distanceX * distanceX + distanceZ * distanceZ);
+        if (length < 0.01) return false;
+
+        double step = Math.min(length, Math.min(speed, MAX_MOVE));
+        double moveX = distanceX / length * step;
+        double moveZ = distanceZ / length * step;
+        double groundY = this.botManager.getHeightmapCache().getGroundY(this.world, currentX + moveX, currentZ + moveZ);
+        // Without gravity or a known ground the bot keeps its height
+        double moveY = Double.isNaN(groundY) ? 0 : groundY - this.kinematics.getY(id);
+        // Don't walk up walls
+        if (moveY > MAX_STEP) return false;
+
+        float yaw = (float) Math.toDegrees(Math.atan2(-distanceX, distanceZ));
+        this.kinematics.setRotation(id, yaw, 0);
+        // Falling down is left to gravity
+        this.kinematics.move(id, moveX, Math.max(0, moveY), moveZ);
+        return true;
+    }
+
+    /**
+     * Set the last postion of this bot
+     * <p>May be renamed later</p>
+     * <p>Applied at the start of the next client tick</p>
+     *
+     * @param x X pos of bot
+     * @param y Y pos of bot
+     * @param z Z pos of bot
+     */
+    public void setLastPosition(double x, double y, double z) {
+        this.kinematics.setPosition(this.id, x, y, z);
+    }
+
+    /**
+     * Create the packet for the movement of this client tick
+     * <p>Position and rotation changes are merged into one packet</p>
+     *
+     * @param movement Movement from {@link BotKinematics#takeMovement(int)}
+     * @return Packet to send, null if nothing has to be sent
+     * @hidden
+     */
+    @Nullable
+    public MinecraftPacket createMovementPacket(int movement) {
+        int id = this.id;
+        boolean onGround = this.kinematics.hasFlag(id, BotKinematics.ON_GROUND);
+        boolean moved = (movement & (BotKinematics.DIRTY | BotKinematics.HEARTBEAT)) != 0;
+        boolean rotated = (movement & BotKinematics.ROTATED) != 0;
+        if (moved && rotated) {
+            return new ServerboundMovePlayerPosRotPacket(onGround, false, this.kinematics.getX(id), this.kinematics.getY(id),
+                this.kinematics.getZ(id), this.kinematics.getYaw(id), this.kinematics.getPitch(id));
+        } else if (moved) {
+            return new ServerboundMovePlayerPosPacket(onGround, false,
+                this.kinematics.getX(id), this.kinematics.getY(id), this.kinematics.getZ(id));
+        } else if (rotated) {
+            return new ServerboundMovePlayerRotPacket(onGround, false, this.kinematics.getYaw(id), this.kinematics.getPitch(id));
+        }
+        return null;
+    }
+
+    /**
+     * Move the bot by an amount
+     * <p>NOTE: The bot should not move more than 8 blocks</p>
+     *
+     * @param x Amount to move on the X axis
+     * @param y Amount to move on the Y axis
+     * @param z Amount to move on the Z axis
+     */
+    public void move(double x, double y, double z) {
+        this.kinematics.move(this.id, x, y, z);
+    }
+
+    /**
+     * Move the bot to a new location
+     * <p>NOTE: The bot should not move more than 8 blocks</p>
+     *
+     * @param x X coord of new location
+     * @param y Y coord of new location
+     * @param z Z coord of new location
+     */
+    public void moveTo(double x, double y, double z) {
+        this.kinematics.moveTo(this.id, x, y, z);
+    }
+
+    /**
+     * Move the bot to a new location
+     * <p>NOTE: The bot should not move more than 8 blocks</p>
+     *
+     * @param x     X coord of new location
+     * @param y     Y coord of new location
+     * @param z     Z coord of new location
+     * @param yaw   Yaw of new location
+     * @param pitch Pitch of new location
+     */
+    public void moveTo(double x, double y, double z, float yaw, float pitch) {
+        this.kinematics.moveTo(this.id, x, y, z);
+        this.kinematics.setRotation(this.id, yaw, pitch);
+    }
+
+    /**
+     * Rotate the bot
+     * <p>The rotation is sent to the server with the next client tick</p>
+     *
+     * @param yaw   Yaw of new position
+     * @param pitch Pitch of new position
+     */
+    private void look(float yaw, float pitch) {
+        this.kinematics.setRotation(this.id, yaw, pitch);
+    }
+
+    /**
+     * Wait for the next packet of a type from the server
+     * <p>The future completes on the packet thread of this bot, and fails if the bot disconnects first</p>
+     *
+     * @param type   Class of packet to wait for
+     * @param filter Filter the packet has to pass
+     * @param <T>    Type of packet
+     * @return Future completed with the packet
+     */
+    public <T extends Packet> CompletableFuture<T> awaitPacket(Class<T> type, Predicate<? super T> filter) {
+        PacketWaiter<T> waiter = new PacketWaiter<>(type, filter, new CompletableFuture<>());
+        this.packetWaiters.add(waiter);
+        // Don't keep waiters around that were cancelled or timed out
+        waiter.future.whenComplete((packet, throwable) -> this.packetWaiters.remove(waiter));
+        return waiter.future;
+    }
+
+    /**
+     * Complete the waiters for a received packet
+     *
+     * @param packet Packet received from the server
+     * @hidden
+     */
+    void completePacketWaiters(Packet packet) {
+        if (this.packetWaiters.isEmpty()) return;
+        for (PacketWaiter<?> waiter : this.packetWaiters) {
+            waiter.complete(packet);
+        }
+    }
+
+    /**
+     * Fail all packet waiters, the packets will never arrive
+     *
+     * @hidden
+     */
+    void failPacketWaiters() {
+        for (PacketWaiter<?> waiter : this.packetWaiters) {
+            waiter.future.completeExceptionally(new IllegalStateException("Bot '" + this.nickname + "' disconnected"));
+        }
+    }
+
+    /**
+     * Disconnect the bot from the server
+     */
+    public void disconnect() {
+        this.manualDisconnecting = true;
+        this.client.disconnect("Leaving");
+        this.botManager.getPlatform().botDisconnected(this);
+    }
+
+    private record PacketWaiter<T extends Packet>(Class<T> type, Predicate<? super T> filter, CompletableFuture<T> future) {
+
+        private void complete(Packet packet) {
+            if (!this.type.isInstance(packet)) return;
+            T cast = this.type.cast(packet);
+            try {
+                if (this.filter.test(cast)) this.future.complete(cast);
+            } catch (RuntimeException e) {
+                // A broken filter should fail the waiter, not the packet thread
+                this.future.completeExceptionally(e);
+            }
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        String x = String.format("%.2f", getX());
+        String y = String.format("%.2f", getY());
+        String z = String.format("%.2f", getZ());
+        return "Bot{" +
+            "id=" + id +
+            ", nickname='" + nickname + '\'' +
+            ", lastX=" + x +
+            ", lastY=" + y +
+            ", lastZ=" + z +
+            ", groundY=" + this.kinematics.getGroundY(id) +
+            ", connected=" + connected +
+            '}';
+    }
+
+}
@@ -0,0 +1,429 @@
+package com.shanebeestudios.stress.api.bot;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Kinematic state of all bots, stored in primitive arrays indexed by bot ID
+ * <p>Arrays are split in fixed size pages which are never reallocated,
+ * so growing never loses writes from other threads.</p>
+ * <p>Positions, movement and gravity are only written by the client tick. Changes made on any other thread,
+ * like positions received from the server, are queued and applied at the start of the next client tick,
+ * so they are never lost to a tick running at the same time.</p>
+ */
+@SuppressWarnings("unused")
+public class BotKinematics {
+
+    /**
+     * Bot ID slot is in use
+     */
+    public static final byte ACTIVE = 1;
+    /**
+     * Position of bot was received from the server
+     */
+    public static final byte POSITION_KNOWN = 1 << 1;
+    /**
+     * Bot is standing on the ground
+     */
+    public static final byte ON_GROUND = 1 << 2;
+    /**
+     * Position changed since it was last sent to the server
+     */
+    public static final byte DIRTY = 1 << 3;
+    /**
+     * Rotation changed since it was last sent to the server
+     */
+    public static final byte ROTATED = 1 << 4;
+    /**
+     * Returned by {@link #takeMovement(int)} when nothing changed for {@link #HEARTBEAT_TICKS} ticks
+     */
+    public static final byte HEARTBEAT = 1 << 5;
+    /**
+     * Ticks after which vanilla clients send their position even when standing still
+     */
+    public static final int HEARTBEAT_TICKS = 20;
+
+    static final int PAGE_BITS = 10;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Run the integrator on multiple cores once there are this many pages
+    private static final int PARALLEL_PAGES = 4;
+
+    // Vanilla player physics per tick
+    private static final double GRAVITY = 0.08;
+    private static final double DRAG = 0.98;
+
+    // Types of changes handed off to the client tick
+    private static final byte TELEPORT = 0;
+    private static final byte MOVE = 1;
+    private static final byte MOVE_TO = 2;
+    private static final byte ROTATE = 3;
+
+    private volatile Page[] pages = new Page[0];
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    // Thread of the last client tick, changes from other threads are queued
+    private volatile Thread tickThread;
+
+    /**
+     * Reset the state of a bot ID
+     *
+     * @param id ID of bot
+     */
+    public void reset(int id) {
+        Page page = page(id);
+        int i = id & PAGE_MASK;
+        page.x[i] = 0;
+        page.y[i] = 0;
+        page.z[i] = 0;
+        page.velocityY[i] = 0;
+        page.groundY[i] = Double.NaN;
+        page.yaw[i] = 0;
+        page.pitch[i] = 0;
+        page.idleTicks[i] = 0;
+        // Changes still queued for the previous bot of this ID no longer match
+        page.generation[i]++;
+        page.flags[i] = ACTIVE;
+    }
+
+    /**
+     * Mark a bot ID as no longer in use
+     *
+     * @param id ID of bot
+     */
+    public void deactivate(int id) {
+        if (id < 0) return;
+        page(id).flags[id & PAGE_MASK] = 0;
+    }
+
+    /**
+     * Set the position of a bot as received from the server
+     * <p>Safe to call from any thread. The position is applied by {@link #applyPending()} at the start of the next client tick,
+     * and sent back with that tick, like vanilla does after a teleport</p>
+     *
+     * @param id ID of bot
+     * @param x  X coord
+     * @param y  Y coord
+     * @param z  Z coord
+     */
+    public void setPosition(int id, double x, double y, double z) {
+        if (id < 0) return;
+        queue(TELEPORT, id, x, y, z, 0, 0);
+    }
+
+    /**
+     * Apply all changes made outside the client tick since the last client tick
+     * <p>Called by the client tick before anything else, the calling thread becomes the tick thread.
+     * Teleports win over movement and gravity of the tick before.</p>
+     */
+    public void applyPending() {
+        this.tickThread = Thread.currentThread();
+        Pending change;
+        while ((change = this.pending.poll()) != null) {
+            Page page = page(change.id);
+            int i = change.id & PAGE_MASK;
+            byte flags = page.flags[i];
+            // Bot was removed before its change was applied, its ID may belong to a new bot by now
+            if ((flags & ACTIVE) == 0 || page.generation[i] != change.generation) continue;
+            switch (change.type) {
+                case TELEPORT -> {
+                    page.x[i] = change.x;
+                    page.y[i] = change.y;
+                    page.z[i] = change.z;
+                    page.velocityY[i] = 0;
+                    page.flags[i] = (byte) ((flags | POSITION_KNOWN | DIRTY) & ~ON_GROUND);
+                }
+                case MOVE -> move(page, i, change.x, change.y, change.z);
+                case MOVE_TO -> moveTo(page, i, change.x, change.y, change.z);
+                case ROTATE -> setRotation(page, i, change.yaw, change.pitch);
+            }
+        }
+    }
+
+    /**
+     * Move a bot by an amount and mark it to be sent to the server
+     * <p>Applied right away on the client tick, else at the start of the next one</p>
+     *
+     * @param id ID of bot
+     * @param x  Amount to move on the X axis
+     * @param y  Amount to move on the Y axis
+     * @param z  Amount to move on the Z axis
+     */
+    public void move(int id, double x, double y, double z) {
+        if (id < 0) return;
+        if (Thread.currentThread() != this.tickThread) {
+            queue(MOVE, id, x, y, z, 0, 0);
+            return;
+        }
+        move(page(id), id & PAGE_MASK, x, y, z);
+    }
+
+    private static void move(Page page, int i, double x, double y, double z) {
+        page.x[i] += x;
+        page.y[i] += y;
+        page.z[i] += z;
+        page.flags[i] |= DIRTY;
+    }
+
+    /**
+     * Move a bot to a location and mark it to be sent to the server
+     * <p>Applied right away on the client tick, else at the start of the next one</p>
+     *
+     * @param id ID of bot
+     * @param x  X coord
+     * @param y  Y coord
+     * @param z  Z coord
+     */
+    public void moveTo(int id, double x, double y, double z) {
+        if (id < 0) return;
+        if (Thread.currentThread() != this.tickThread) {
+            queue(MOVE_TO, id, x, y, z, 0, 0);
+            return;
+        }
+        moveTo(page(id), id & PAGE_MASK, x, y, z);
+    }
+
+    private static void moveTo(Page page, int i, double x, double y, double z) {
+        page.x[i] = x;
+        page.y[i] = y;
+        page.z[i] = z;
+        page.flags[i] |= DIRTY;
+    }
+
+    /**
+     * Set the rotation of a bot and mark it to be sent to the server if it changed
+     * <p>Applied right away on the client tick, else at the start of the next one</p>
+     *
+     * @param id    ID of bot
+     * @param yaw   Yaw of bot
+     * @param pitch Pitch of bot
+     */
+    public void setRotation(int id, float yaw, float pitch) {
+        if (id < 0) return;
+        if (Thread.currentThread() != this.tickThread) {
+            queue(ROTATE, id, 0, 0, 0, yaw, pitch);
+            return;
+        }
+        setRotation(page(id), id & PAGE_MASK, yaw, pitch);
+    }
+
+    private static void setRotation(Page page, int i, float yaw, float pitch) {
+        if (page.yaw[i] == yaw && page.pitch[i] == pitch) return;
+        page.yaw[i] = yaw;
+        page.pitch[i] = pitch;
+        page.flags[i] |= ROTATED;
+    }
+
+    /**
+     * Set the ground Y below a bot
+     *
+     * @param id      ID of bot
+     * @param groundY Ground Y, {@link Double#NaN} if unknown
+     */
+    public void setGroundY(int id, double groundY) {
+        if (id < 0) return;
+        page(id).groundY[id & PAGE_MASK] = groundY;
+    }
+
+    /**
+     * Get the X coord of a bot
+     *
+     * @param id ID of bot
+     * @return X coord of bot
+     */
+    public double getX(int id) {
+        return id < 0 ? 0 : page(id).x[id & PAGE_MASK];
+    }
+
+    /**
+     * Get the Y coord of a bot
+     *
+     * @param id ID of bot
+     * @return Y coord of bot
+     */
+    public double getY(int id) {
+        return id < 0 ? 0 : page(id).y[id & PAGE_MASK];
+    }
+
+    /**
+     * Get the Z coord of a bot
+     *
+     * @param id ID of bot
+     * @return Z coord of bot
+     */
+    public double getZ(int id) {
+        return id < 0 ? 0 : page(id).z[id & PAGE_MASK];
+    }
+
+    /**
+     * Get the yaw of a bot
+     *
+     * @param id ID of bot
+     * @return Yaw of bot
+     */
+    public float getYaw(int id) {
+        return id < 0 ? 0 : page(id).yaw[id & PAGE_MASK];
+    }
+
+    /**
+     * Get the pitch of a bot
+     *
+     * @param id ID of bot
+     * @return Pitch of bot
+     */
+    public float getPitch(int id) {
+        return id < 0 ? 0 : page(id).pitch[id & PAGE_MASK];
+    }
+
+    /**
+     * Get the ground Y below a bot
+     *
+     * @param id ID of bot
+     * @return Ground Y, {@link Double#NaN} if unknown
+     */
+    public double getGroundY(int id) {
+        return id < 0 ? Double.NaN : page(id).groundY[id & PAGE_MASK];
+    }
+
+    /**
+     * Check if a bot has a flag
+     *
+     * @param id   ID of bot
+     * @param flag Flag to check
+     * @return True if bot has flag
+     */
+    public boolean hasFlag(int id, byte flag) {
+        return id >= 0 && (page(id).flags[id & PAGE_MASK] & flag) != 0;
+    }
+
+    /**
+     * Clear the dirty flag of a bot
+     *
+     * @param id ID of bot
+     * @return True if the bot was dirty
+     */
+    public boolean clearDirty(int id) {
+        if (id < 0) return false;
+        Page page = page(id);
+        int i = id & PAGE_MASK;
+        byte flags = page.flags[i];
+        if ((flags & DIRTY) == 0) return false;
+        page.flags[i] = (byte) (flags & ~DIRTY);
+        return true;
+    }
+
+    /**
+     * Take the movement of a bot that has to be sent to the server this client tick
+     * <p>Clears {@link #DIRTY} and {@link #ROTATED}. When neither was set for {@link #HEARTBEAT_TICKS} calls,
+     * {@link #HEARTBEAT} is returned instead.</p>
+     *
+     * @param id ID of bot
+     * @return {@link #DIRTY} and/or {@link #ROTATED}, {@link #HEARTBEAT} or 0 if nothing has to be sent
+     */
+    public int takeMovement(int id) {
+        if (id < 0) return 0;
+        Page page = page(id);
+        int i = id & PAGE_MASK;
+        byte flags = page.flags[i];
+        if ((flags & POSITION_KNOWN) == 0) return 0;
+        int changed = flags & (DIRTY | ROTATED);
+        if (changed != 0) {
+            page.flags[i] = (byte) (flags & ~(DIRTY | ROTATED));
+            page.idleTicks[i] = 0;
+            return changed;
+        }
+        if (++page.idleTicks[i] < HEARTBEAT_TICKS) return 0;
+        page.idleTicks[i] = 0;
+        return HEARTBEAT;
+    }
+
+    /**
+     * Run one tick of gravity for all bots
+     * <p>Bots which moved are marked {@link #DIRTY}</p>
+     */
+    public void integrate() {
+        Page[] pages = this.pages;
+        if (pages.length >= PARALLEL_PAGES) {
+            IntStream.range(0, pages.length).parallel().forEach(i -> integrate(pages[i]));
+        } else {
+            for (Page page : pages) {
+                integrate(page);
+            }
+        }
+    }
+
+    private static void integrate(Page page) {
+        double[] y = page.y;
+        double[] velocityY = page.velocityY;
+        double[] groundY = page.groundY;
+        byte[] flags = page.flags;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            byte flag = flags[i];
+            if ((flag & (ACTIVE | POSITION_KNOWN)) != (ACTIVE | POSITION_KNOWN)) continue;
+            double ground = groundY[i];
+            // NaN compares false, bots above unloaded chunks don't fall
+            if (!(y[i] > ground)) {
+                if (y[i] == ground && (flag & ON_GROUND) == 0) {
+                    velocityY[i] = 0;
+                    flags[i] = (byte) (flag | ON_GROUND | DIRTY);
+                }
+                continue;
+            }
+            double velocity = (velocityY[i] - GRAVITY) * DRAG;
+            double newY = y[i] + velocity;
+            if (newY <= ground) {
+                newY = ground;
+                velocity = 0;
+                flag |= ON_GROUND;
+            } else {
+                flag &= ~ON_GROUND;
+            }
+            y[i] = newY;
+            velocityY[i] = velocity;
+            flags[i] = (byte) (flag | DIRTY);
+        }
+    }
+
+    private void queue(byte type, int id, double x, double y, double z, float yaw, float pitch) {
+        this.pending.offer(new Pending(type, id, page(id).generation[id & PAGE_MASK], x, y, z, yaw, pitch));
+    }
+
+    private Page page(int id) {
+        int index = id >> PAGE_BITS;
+        Page[] pages = this.pages;
+        if (index < pages.length) return pages[index];
+        return grow(index);
+    }
+
+    private synchronized Page grow(int index) {
+        Page[] pages = this.pages;
+        if (index >= pages.length) {
+            Page[] newPages = Arrays.copyOf(pages, index + 1);
+            for (int i = pages.length; i <= index; i++) {
+                newPages[i] = new Page();
+            }
+            this.pages = newPages;
+            pages = newPages;
+        }
+        return pages[index];
+    }
+
+    private record Pending(byte type, int id, int generation, double x, double y, double z, float yaw, float pitch) {
+    }
+
+    private static class Page {
+        private final double[] x = new double[PAGE_SIZE];
+        private final double[] y = new double[PAGE_SIZE];
+        private final double[] z = new double[PAGE_SIZE];
+        private final double[] velocityY = new double[PAGE_SIZE];
+        private final double[] groundY = new double[PAGE_SIZE];
+        private final float[] yaw = new float[PAGE_SIZE];
+        private final float[] pitch = new float[PAGE_SIZE];
+        private final byte[] flags = new byte[PAGE_SIZE];
+        private final byte[] idleTicks = new byte[PAGE_SIZE];
+        // Bumped each time an ID is given to a new bot
+        private final int[] generation = new int[PAGE_SIZE];
+    }
+
+}
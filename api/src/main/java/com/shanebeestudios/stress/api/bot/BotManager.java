@@ -0,0 +1,560 @@
+package com.shanebeestudios.stress.api.bot;
+
+import com.shanebeestudios.stress.api.generator.NickGenerator;
+import com.shanebeestudios.stress.api.metrics.LatencyStats;
+import com.shanebeestudios.stress.api.network.LoginPipeline;
+import com.shanebeestudios.stress.api.network.PacketExecutorPool;
+import com.shanebeestudios.stress.api.network.PacketFilter;
+import com.shanebeestudios.stress.api.platform.BotPlatform;
+import com.shanebeestudios.stress.api.platform.HeadlessPlatform;
+import com.shanebeestudios.stress.api.script.BotScript;
+import com.shanebeestudios.stress.api.script.ScriptAbortedException;
+import com.shanebeestudios.stress.api.script.ScriptContext;
+import com.shanebeestudios.stress.api.timer.BotScheduler;
+import com.shanebeestudios.stress.api.timer.GravityTimer;
+import com.shanebeestudios.stress.api.util.BotLifecycleLog;
+import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+import com.shanebeestudios.stress.api.world.HeightmapCache;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.network.packet.PacketRegistry;
+import org.geysermc.mcprotocollib.protocol.MinecraftProtocol;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftPacket;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftTypes;
+import org.geysermc.mcprotocollib.protocol.data.ProtocolState;
+import org.geysermc.mcprotocollib.protocol.packet.common.clientbound.ClientboundDisconnectPacket;
+import org.geysermc.mcprotocollib.protocol.packet.common.clientbound.ClientboundKeepAlivePacket;
+import org.geysermc.mcprotocollib.protocol.packet.common.clientbound.ClientboundPingPacket;
+import org.geysermc.mcprotocollib.protocol.packet.common.clientbound.ClientboundTransferPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundStartConfigurationPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundLevelChunkWithLightPacket;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bot manager for server plugin
+ * <p>Has no dependency on the server, server only features go through the {@link BotPlatform}</p>
+ */
+@SuppressWarnings("unused")
+public class BotManager {
+
+    // Handled by the client listener of MCProtocolLib, ie: going back to configuration state or answering pings
+    private static final Set<Class<? extends Packet>> PROTOCOL_PACKETS = Set.of(ClientboundStartConfigurationPacket.class,
+        ClientboundKeepAlivePacket.class, ClientboundPingPacket.class, ClientboundDisconnectPacket.class, ClientboundTransferPacket.class);
+
+    private final int autoRespawnDelay;
+    private final boolean hasGravity;
+    private final List<String> joinMessages = new ArrayList<>();
+    private final InetSocketAddress inetAddr;
+    private final BotRegistry registry = new BotRegistry();
+    private final NickGenerator nickGenerator;
+    private final GravityTimer gravityTimer;
+    private final PacketExecutorPool packetExecutorPool;
+    private final BotScheduler scheduler = new BotScheduler();
+    private final HeightmapCache heightmapCache = new HeightmapCache();
+    private final BotPlatform platform;
+    private final LatencyStats latencyStats = new LatencyStats();
+    private final Set<Thread> scriptThreads = ConcurrentHashMap.newKeySet();
+    private final BotLifecycleLog lifecycleLog = new BotLifecycleLog(20);
+    private final LoginPipeline loginPipeline = new LoginPipeline(Integer.MAX_VALUE, this.scheduler);
+    private volatile PacketFilter packetFilter;
+
+    /**
+     * Create an instance of bot manager
+     *
+     * @param autoRespawnDelay Delay for auto-respawning (0 = instant, -1 = never)
+     * @param hasGravity       Whether the bots have gravity
+     * @param inetAddr         Address to connect bots to (see {@link Utils#createInetAddress(String, int)})
+     * @param nickPath         Path for nickname file (if null will generate from built in file)
+     * @param nickPrefix       Prefix for nicknames
+     */
+    public BotManager(int autoRespawnDelay, boolean hasGravity, InetSocketAddress inetAddr, @Nullable String nickPath, @Nullable String nickPrefix) {
+        this(autoRespawnDelay, hasGravity, inetAddr, nickPath, nickPrefix, 0, new HeadlessPlatform());
+    }
+
+    /**
+     * Create an instance of bot manager
+     *
+     * @param autoRespawnDelay Delay for auto-respawning (0 = instant, -1 = never)
+     * @param hasGravity       Whether the bots have gravity
+     * @param inetAddr         Address to connect bots to (see {@link Utils#createInetAddress(String, int)})
+     * @param nickPath         Path for nickname file (if null will generate from built in file)
+     * @param nickPrefix       Prefix for nicknames
+     * @param packetThreads    Amount of threads shared by all bots to handle packets (0 = amount of available processors)
+     * @param platform         Platform the bots run on
+     */
+    public BotManager(int autoRespawnDelay, boolean hasGravity, InetSocketAddress inetAddr, @Nullable String nickPath,
+                      @Nullable String nickPrefix, int packetThreads, BotPlatform platform) {
+        this.autoRespawnDelay = autoRespawnDelay;
+        this.packetExecutorPool = new PacketExecutorPool(packetThreads);
+        this.platform = platform;
+        this.hasGravity = hasGravity;
+        this.inetAddr = inetAddr;
+        this.nickGenerator = new NickGenerator(nickPath, nickPrefix != null ? nickPrefix : "", true);
+        this.gravityTimer = new GravityTimer(this);
+        this.gravityTimer.startTimer();
+    }
+
+    /**
+     * Get the auto respawn delay
+     *
+     * @return Auto respawn delay
+     */
+    public int getAutoRespawnDelay() {
+        return this.autoRespawnDelay;
+    }
+
+    /**
+     * Wether the gravity timer is enabled
+     *
+     * @return Gravity timer is enabled
+     */
+    public boolean hasGravity() {
+        return this.hasGravity;
+    }
+
+    /**
+     * @return hidden
+     * @hidden currently unused
+     */
+    public List<String> getJoinMessages() {
+        return this.joinMessages;
+    }
+
+    /**
+     * Get the InetAddress these bots will connect to
+     *
+     * @return Address of connection
+     */
+    public InetSocketAddress getInetAddr() {
+        return this.inetAddr;
+    }
+
+    /**
+     * @return hidden
+     * @hidden not sure if this has a use by others
+     */
+    public GravityTimer getGravityTimer() {
+        return this.gravityTimer;
+    }
+
+    /**
+     * Get the packet executor pool shared by all bot sessions
+     * <p>Can be used to check the utilisation of the packet threads</p>
+     *
+     * @return Packet executor pool
+     */
+    public PacketExecutorPool getPacketExecutorPool() {
+        return this.packetExecutorPool;
+    }
+
+    /**
+     * Get the scheduler shared by all bots
+     *
+     * @return Bot scheduler
+     */
+    public BotScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Get the platform the bots run on
+     *
+     * @return Platform of bots
+     */
+    public BotPlatform getPlatform() {
+        return this.platform;
+    }
+
+    /**
+     * Get the pipeline bots log in through
+     * <p>Not limited by default, see {@link LoginPipeline#setMaxInFlight(int)}</p>
+     *
+     * @return Login pipeline
+     */
+    public LoginPipeline getLoginPipeline() {
+        return this.loginPipeline;
+    }
+
+    /**
+     * Get the log of bot lifecycle events
+     *
+     * @return Lifecycle log
+     */
+    public BotLifecycleLog getLifecycleLog() {
+        return this.lifecycleLog;
+    }
+
+    /**
+     * Get the filter of packets bots skip decoding
+     *
+     * @return Packet filter, null if bots decode all packets
+     */
+    @Nullable
+    public PacketFilter getPacketFilter() {
+        return this.packetFilter;
+    }
+
+    /**
+     * Set the filter of packets bots skip decoding
+     * <p>Only applies to bots which log in afterwards</p>
+     *
+     * @param packetFilter Packet filter, null to decode all packets
+     * @throws IllegalArgumentException If the filter skips packets bots or the protocol itself need
+     */
+    public void setPacketFilter(@Nullable PacketFilter packetFilter) {
+        if (packetFilter != null) {
+            for (Class<? extends Packet> packetClass : PacketListener.HANDLED_PACKETS) {
+                if (packetFilter.skips(packetClass)) {
+                    throw new IllegalArgumentException("Bots need " + packetClass.getSimpleName() + ", it can't be skipped");
+                }
+            }
+            for (Class<? extends Packet> packetClass : PROTOCOL_PACKETS) {
+                if (packetFilter.skips(packetClass)) {
+                    throw new IllegalArgumentException("The protocol needs " + packetClass.getSimpleName() + ", it can't be skipped");
+                }
+            }
+            // Heightmaps come from chunks
+            if (this.hasGravity && packetFilter.skips(ClientboundLevelChunkWithLightPacket.class)) {
+                throw new IllegalArgumentException("Bots with gravity need chunks, they can't be skipped");
+            }
+        }
+        this.packetFilter = packetFilter;
+    }
+
+    /**
+     * Get the latency stats of all bots combined
+     *
+     * @return Global latency stats
+     */
+    public LatencyStats getLatencyStats() {
+        return this.latencyStats;
+    }
+
+    /**
+     * Get the client side heightmap shared by all bots
+     * <p>Used by gravity to find the ground below bots</p>
+     *
+     * @return Heightmap cache
+     */
+    public HeightmapCache getHeightmapCache() {
+        return this.heightmapCache;
+    }
+
+    /**
+     * Get all loaded bots
+     * <p>This is an unmodifiable snapshot, bots added or removed afterward will not show up</p>
+     *
+     * @return All loaded bots
+     */
+    public List<Bot> getBots() {
+        return this.registry.asList();
+    }
+
+    /**
+     * Get the registry holding all loaded bots
+     *
+     * @return Bot registry
+     */
+    public BotRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Get instance of nick generator
+     *
+     * @return Nick generator
+     */
+    public NickGenerator getNickGenerator() {
+        return this.nickGenerator;
+    }
+
+    /**
+     * Remove a bot
+     *
+     * @param bot Bot to remove
+     */
+    public void removeBot(Bot bot) {
+        if (!this.registry.remove(bot)) return;
+        this.nickGenerator.release(bot.getNickname());
+        this.scheduler.cancelTasks(bot);
+    }
+
+    /**
+     * Disconnect and remove a bot
+     *
+     * @param bot Bot to disconnect and remove
+     */
+    public void disconnectBot(Bot bot) {
+        bot.disconnect();
+        removeBot(bot);
+    }
+
+    /**
+     * Find a bot by name
+     * <p>Matches the start of the name, ignoring case. An exact match is preferred.</p>
+     *
+     * @param text Name of player to get bot from
+     * @return Bot from name
+     */
+    @Nullable
+    public Bot findBotByName(String text) {
+        return this.registry.findByPrefix(text);
+    }
+
+    /**
+     * Find a bot by UUID
+     *
+     * @param uuid UUID of player to get bot from
+     * @return Bot from UUID
+     */
+    @Nullable
+    public Bot findBot(UUID uuid) {
+        return this.registry.getByUUID(uuid);
+    }
+
+    /**
+     * Find the bot representing a player
+     * <p>Checks the UUID first and falls back to the name</p>
+     *
+     * @param uuid UUID of player
+     * @param name Name of player
+     * @return Bot of player
+     */
+    @Nullable
+    public Bot findBot(UUID uuid, String name) {
+        Bot bot = this.registry.getByUUID(uuid);
+        return bot != null ? bot : this.registry.findByPrefix(name);
+    }
+
+    /**
+     * Create a bot
+     *
+     * @param name Name of bot or null to create random named bot
+     *             Name must be between 1 and 16 characters
+     * @return Bot if was created, else null
+     */
+    @Nullable
+    public Bot createBot(@Nullable String name) {
+        return createBot(name, 0);
+    }
+
+    /**
+     * Create a bot
+     *
+     * @param name       Name of bot or null to create random named bot
+     *                   Name must be between 1 and 16 characters
+     * @param loginDelay Delay in ticks for the bot to login
+     * @return Bot if was created, else null
+     */
+    @Nullable
+    public Bot createBot(@Nullable String name, long loginDelay) {
+        if (name != null && name.length() > 16) return null;
+
+        String botname = nextName(name);
+        if (botname == null) return null;
+        CompletableFuture<Boolean> online = this.platform.isPlayerOnline(botname);
+        if (online.isDone() && online.join()) {
+            // Let's not create a bot if a player with that name is already online
+            this.nickGenerator.release(botname);
+            return null;
+        }
+        Bot bot = new Bot(this, botname, getInetAddr(), null);
+        this.registry.add(bot);
+        if (online.isDone()) {
+            connectBot(bot, loginDelay);
+            this.platform.botCreated(bot);
+        } else {
+            // The platform could not answer right away, the bot connects once the check passed
+            online.thenAccept(isOnline -> {
+                if (isOnline) {
+                    removeBot(bot);
+                } else {
+                    connectBot(bot, loginDelay);
+                    this.platform.botCreated(bot);
+                }
+            });
+        }
+        return bot;
+    }
+
+    /**
+     * Send the same packet from all connected bots
+     *
+     * @param packet Packet to send
+     * @return Amount of bots the packet was sent from
+     * @see #broadcast(MinecraftPacket, Collection)
+     */
+    public int broadcast(MinecraftPacket packet) {
+        return broadcast(packet, this.registry.asList());
+    }
+
+    /**
+     * Send the same packet from many bots
+     * <p>The packet is encoded once, each bot writes a reference counted duplicate of the same buffer.
+     * Only bots in game state get the packet. Bots using a different packet registry than the first bot
+     * send the packet through their session instead.</p>
+     * <p>NOTE: Encoded packets are written to the channel directly, bypassing {@link org.geysermc.mcprotocollib.network.Session#send(Packet) Session#send}.
+     * Session listeners are not called for them, ie: packet sending/sent events.</p>
+     *
+     * @param packet Packet to send, must be a serverbound game packet
+     * @param bots   Bots to send the packet from
+     * @return Amount of bots the packet was sent from
+     */
+    public int broadcast(MinecraftPacket packet, Collection<Bot> bots) {
+        ByteBuf encoded = null;
+        PacketRegistry registry = null;
+        int sent = 0;
+        try {
+            for (Bot bot : bots) {
+                Channel channel = bot.getChannel();
+                if (!bot.isConnected() || channel == null || !channel.isActive()) continue;
+                MinecraftProtocol protocol = bot.getProtocol();
+                if (protocol.getOutboundState() != ProtocolState.GAME) continue;
+                PacketRegistry botRegistry = protocol.getOutboundPacketRegistry();
+                if (encoded == null) {
+                    encoded = encode(botRegistry, packet);
+                    registry = botRegistry;
+                } else if (botRegistry != registry) {
+                    // The encoded packet ID may not match this bot's protocol
+                    bot.getClient().send(packet);
+                    sent++;
+                    continue;
+                }
+                // Goes through compression and framing of each session, but skips the packet codec
+                channel.writeAndFlush(encoded.retainedDuplicate(), channel.voidPromise());
+                sent++;
+            }
+        } finally {
+            if (encoded != null) encoded.release();
+        }
+        return sent;
+    }
+
+    private static ByteBuf encode(PacketRegistry registry, MinecraftPacket packet) {
+        ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            // Same as the packet codec, packet ID followed by the packet
+            MinecraftTypes.writeVarInt(buf, registry.getServerboundId(packet));
+            packet.serialize(buf);
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Create a bot controlled by a script
+     * <p>The script runs on its own virtual thread and has to {@link ScriptContext#login() login} the bot itself.
+     * The bot is disconnected once the script ends.</p>
+     *
+     * @param name   Name of bot or null to create random named bot
+     *               Name must be between 1 and 16 characters
+     * @param script Script to run
+     * @return Bot if was created, else null
+     */
+    @Nullable
+    public Bot createScriptedBot(@Nullable String name, BotScript script) {
+        if (name != null && name.length() > 16) return null;
+
+        String botname = nextName(name);
+        if (botname == null) return null;
+        CompletableFuture<Boolean> online = this.platform.isPlayerOnline(botname);
+        if (online.isDone() && online.join()) {
+            this.nickGenerator.release(botname);
+            return null;
+        }
+        Bot bot = new Bot(this, botname, getInetAddr(), null);
+        this.registry.add(bot);
+        Thread.ofVirtual().name("StressTestBots-Script-" + botname).start(() -> {
+            this.scriptThreads.add(Thread.currentThread());
+            try {
+                // Blocking is cheap here
+                if (online.join()) {
+                    removeBot(bot);
+                    return;
+                }
+                this.platform.botCreated(bot);
+                script.run(new ScriptContext(bot));
+            } catch (ScriptAbortedException e) {
+                Logger.warn("Script of bot '&b%s&e' aborted: %s", botname, e.getMessage());
+            } catch (Exception e) {
+                Logger.error("Script of bot '&b%s&c' failed:", botname);
+                Logger.error(e);
+            } finally {
+                this.scriptThreads.remove(Thread.currentThread());
+                if (bot.getId() >= 0) disconnectBot(bot);
+            }
+        });
+        return bot;
+    }
+
+    /**
+     * Get the amount of scripts currently running
+     *
+     * @return Amount of running scripts
+     */
+    public int getRunningScripts() {
+        return this.scriptThreads.size();
+    }
+
+    // Names stay in use until the bot is removed, so pending bots never share a name
+    @Nullable
+    private String nextName(@Nullable String name) {
+        if (name == null) return this.nickGenerator.nextNick();
+        return this.nickGenerator.reserve(name) ? name : null;
+    }
+
+    private void connectBot(Bot bot, long loginDelay) {
+        if (loginDelay > 0) {
+            this.scheduler.schedule(bot, () -> this.loginPipeline.submit(bot), loginDelay * 50, TimeUnit.MILLISECONDS);
+        } else {
+            this.loginPipeline.submit(bot);
+        }
+    }
+
+    /**
+     * Shutdown the threads used by this bot manager
+     */
+    public void shutdown() {
+        this.scriptThreads.forEach(Thread::interrupt);
+        this.gravityTimer.stopTimer();
+        this.scheduler.shutdown();
+        this.packetExecutorPool.shutdown();
+        this.lifecycleLog.stop();
+    }
+
+    /**
+     * Log to console that a bot was created
+     * <p>Logged in a summary, see {@link #getLifecycleLog()}</p>
+     *
+     * @param name Name of bot
+     */
+    public void logBotCreated(String name) {
+        this.lifecycleLog.record(BotLifecycleLog.Type.CREATED, name);
+    }
+
+    /**
+     * Log disconnection of bot to console
+     * <p>Logged in a summary, see {@link #getLifecycleLog()}</p>
+     *
+     * @param name Name of bot
+     */
+    public void logBotDisconnected(String name) {
+        this.lifecycleLog.record(BotLifecycleLog.Type.DISCONNECTED, name);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.shanebeestudios.stress.api.bot;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Thread safe registry of all loaded bots
+ * <p>Each registered bot gets a numeric ID which stays the same until the bot is removed.
+ * IDs of removed bots are re-used, so they stay small and can be used as array indexes.</p>
+ * <p>Adding and removing are O(1), snapshots are cached until the registry changes.</p>
+ * <p>Bots are also indexed by name and UUID, names can be looked up case-insensitive by prefix.</p>
+ */
+@SuppressWarnings("unused")
+public class BotRegistry {
+
+    private static final Bot[] EMPTY = new Bot[0];
+
+    private Bot[] slots = new Bot[64];
+    private int[] freeIds = new int[64];
+    private int freeCount;
+    private int highestId;
+    private int size;
+    private volatile Bot[] snapshot = EMPTY;
+    private final Map<String, Bot> byName = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Bot> byPrefix = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Bot> byUUID = new ConcurrentHashMap<>();
+    private final BotKinematics kinematics = new BotKinematics();
+
+    /**
+     * Register a bot
+     *
+     * @param bot Bot to register
+     * @return ID of the bot
+     */
+    public synchronized int add(Bot bot) {
+        if (bot.getId() >= 0) return bot.getId();
+        int id;
+        if (this.freeCount > 0) {
+            id = this.freeIds[--this.freeCount];
+        } else {
+            id = this.highestId++;
+            if (id == this.slots.length) {
+                this.slots = Arrays.copyOf(this.slots, id * 2);
+            }
+        }
+        this.slots[id] = bot;
+        this.kinematics.reset(id);
+        this.size++;
+        this.snapshot = null;
+        bot.setId(id);
+        String key = key(bot.getNickname());
+        this.byName.put(key, bot);
+        this.byPrefix.put(key, bot);
+        this.byUUID.put(bot.getUniqueId(), bot);
+        return id;
+    }
+
+    /**
+     * Unregister a bot
+     *
+     * @param bot Bot to unregister
+     * @return True if the bot was registered
+     */
+    public synchronized boolean remove(Bot bot) {
+        int id = bot.getId();
+        if (id < 0 || id >= this.highestId || this.slots[id] != bot) return false;
+        this.slots[id] = null;
+        this.kinematics.deactivate(id);
+        if (this.freeCount == this.freeIds.length) {
+            this.freeIds = Arrays.copyOf(this.freeIds, this.freeCount * 2);
+        }
+        this.freeIds[this.freeCount++] = id;
+        this.size--;
+        this.snapshot = null;
+        bot.setId(-1);
+        String key = key(bot.getNickname());
+        this.byName.remove(key, bot);
+        this.byPrefix.remove(key, bot);
+        this.byUUID.remove(bot.getUniqueId(), bot);
+        return true;
+    }
+
+    /**
+     * Get a bot by its ID
+     *
+     * @param id ID of bot
+     * @return Bot with ID or null if no bot has this ID
+     */
+    @Nullable
+    public synchronized Bot get(int id) {
+        if (id < 0 || id >= this.highestId) return null;
+        return this.slots[id];
+    }
+
+    /**
+     * Get the kinematic state of all registered bots, indexed by bot ID
+     *
+     * @return Kinematics of bots
+     */
+    public BotKinematics getKinematics() {
+        return this.kinematics;
+    }
+
+    /**
+     * Get a bot by its exact name (ignoring case)
+     *
+     * @param name Name of bot
+     * @return Bot with name or null if no bot has this name
+     */
+    @Nullable
+    public Bot getByName(String name) {
+        return this.byName.get(key(name));
+    }
+
+    /**
+     * Get a bot by its UUID
+     *
+     * @param uuid UUID of bot
+     * @return Bot with UUID or null if no bot has this UUID
+     */
+    @Nullable
+    public Bot getByUUID(UUID uuid) {
+        return this.byUUID.get(uuid);
+    }
+
+    /**
+     * Find a bot whose name starts with a prefix (ignoring case)
+     * <p>An exact match is preferred, otherwise the alphabetically first match is returned</p>
+     *
+     * @param prefix Prefix of name
+     * @return Bot with matching name or null if none match
+     */
+    @Nullable
+    public Bot findByPrefix(String prefix) {
+        String key = key(prefix);
+        Bot exact = this.byName.get(key);
+        if (exact != null) return exact;
+
+        Map.Entry<String, Bot> entry = this.byPrefix.ceilingEntry(key);
+        if (entry != null && entry.getKey().startsWith(key)) return entry.getValue();
+        return null;
+    }
+
+    /**
+     * Get the amount of registered bots
+     *
+     * @return Amount of bots
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the upper bound (exclusive) of IDs currently in use
+     *
+     * @return Upper bound of IDs
+     */
+    public synchronized int getIdBound() {
+        return this.highestId;
+    }
+
+    /**
+     * Get a consistent snapshot of all registered bots, ordered by ID
+     * <p>The returned array must not be modified, it is shared until the registry changes</p>
+     *
+     * @return Snapshot of all bots
+     */
+    public Bot[] snapshot() {
+        Bot[] snapshot = this.snapshot;
+        if (snapshot != null) return snapshot;
+        synchronized (this) {
+            if (this.snapshot == null) {
+                Bot[] bots = new Bot[this.size];
+                int index = 0;
+                for (int i = 0; i < this.highestId; i++) {
+                    Bot bot = this.slots[i];
+                    if (bot != null) bots[index++] = bot;
+                }
+                this.snapshot = bots;
+            }
+            return this.snapshot;
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get a snapshot of all registered bots as an unmodifiable list
+     *
+     * @return Unmodifiable list of all bots
+     */
+    public List<Bot> asList() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot()));
+    }
+
+}
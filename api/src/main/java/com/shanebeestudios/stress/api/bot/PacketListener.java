@@ -0,0 +1,267 @@
+package com.shanebeestudios.stress.api.bot;
+
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import com.shanebeestudios.stress.api.network.LoginFailure;
+import com.shanebeestudios.stress.api.network.LoginPipeline;
+import com.shanebeestudios.stress.api.network.PacketFilter;
+import com.shanebeestudios.stress.api.timer.BotScheduler;
+import com.shanebeestudios.stress.api.util.BotLifecycleLog;
+import net.kyori.adventure.key.Key;
+import org.cloudburstmc.math.vector.Vector3d;
+import org.cloudburstmc.nbt.NbtMap;
+import org.geysermc.mcprotocollib.network.Session;
+import org.geysermc.mcprotocollib.network.event.session.ConnectedEvent;
+import org.geysermc.mcprotocollib.network.event.session.DisconnectedEvent;
+import org.geysermc.mcprotocollib.network.event.session.SessionAdapter;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.protocol.data.game.ClientCommand;
+import org.geysermc.mcprotocollib.protocol.data.game.RegistryEntry;
+import org.geysermc.mcprotocollib.protocol.data.game.entity.player.PlayerSpawnInfo;
+import org.geysermc.mcprotocollib.protocol.data.game.level.block.BlockChangeEntry;
+import org.geysermc.mcprotocollib.protocol.data.game.level.notify.GameEvent;
+import org.geysermc.mcprotocollib.protocol.data.game.level.notify.RespawnScreenValue;
+import org.geysermc.mcprotocollib.protocol.packet.common.clientbound.ClientboundKeepAlivePacket;
+import org.geysermc.mcprotocollib.protocol.packet.common.serverbound.ServerboundKeepAlivePacket;
+import org.geysermc.mcprotocollib.protocol.packet.configuration.clientbound.ClientboundFinishConfigurationPacket;
+import org.geysermc.mcprotocollib.protocol.packet.configuration.clientbound.ClientboundRegistryDataPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundLoginPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundPongResponsePacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundRespawnPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.entity.player.ClientboundPlayerCombatKillPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.entity.player.ClientboundPlayerPositionPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundBlockUpdatePacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundForgetLevelChunkPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundGameEventPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundLevelChunkWithLightPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundSectionBlocksUpdatePacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.ServerboundClientCommandPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.ServerboundPingRequestPacket;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.serverbound.level.ServerboundAcceptTeleportationPacket;
+import org.geysermc.mcprotocollib.protocol.packet.login.clientbound.ClientboundLoginFinishedPacket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @hidden
+ */
+@SuppressWarnings({"DuplicatedCode", "FieldCanBeLocal", "unused"})
+public class PacketListener extends SessionAdapter {
+
+    /**
+     * Packets this listener handles, these can't be skipped by a {@link PacketFilter}
+     */
+    static final Set<Class<? extends Packet>> HANDLED_PACKETS = Set.of(ClientboundGameEventPacket.class,
+        ClientboundLoginPacket.class, ClientboundPlayerPositionPacket.class, ClientboundPlayerCombatKillPacket.class,
+        ClientboundKeepAlivePacket.class, ClientboundPongResponsePacket.class, ClientboundBlockUpdatePacket.class,
+        ClientboundSectionBlocksUpdatePacket.class, ClientboundForgetLevelChunkPacket.class, ClientboundRespawnPacket.class);
+
+    private final Bot bot;
+    private int entityId;
+    private final Session client;
+    private final BotManager botManager;
+    private final BotScheduler scheduler;
+    private final List<String> joinMessages;
+    private int autoRespawnDelay;
+    private final int latency;
+    private final List<Integer> dimensionMinY = new ArrayList<>();
+    private long lastKeepAlive;
+    // Login phase the bot reached, and the time it started
+    private LatencyType loginPhase = LatencyType.TCP_CONNECT;
+    private long phaseStart;
+
+    public PacketListener(Bot bot) {
+        this.bot = bot;
+        this.client = bot.getClient();
+        this.botManager = bot.getBotManager();
+        this.scheduler = this.botManager.getScheduler();
+        this.joinMessages = this.botManager.getJoinMessages();
+        this.autoRespawnDelay = this.botManager.getAutoRespawnDelay();
+        this.latency = new Random().nextInt(20, 150);
+    }
+
+    @Override
+    public void connected(ConnectedEvent event) {
+        this.phaseStart = this.bot.getConnectTime();
+        nextLoginPhase(LatencyType.HANDSHAKE);
+    }
+
+    @Override
+    public void packetReceived(Session session, Packet packet) {
+        // The first answer of the server ends the handshake
+        if (this.loginPhase == LatencyType.HANDSHAKE) nextLoginPhase(LatencyType.LOGIN_STATE);
+        switch (packet) {
+            case ClientboundLoginFinishedPacket ignored -> nextLoginPhase(LatencyType.CONFIGURATION);
+            case ClientboundFinishConfigurationPacket ignored -> nextLoginPhase(LatencyType.JOIN_GAME);
+            case ClientboundGameEventPacket gameEventPacket -> gameEvent(gameEventPacket);
+            case ClientboundLoginPacket loginPacket -> login(loginPacket);
+            case ClientboundPlayerPositionPacket positionPacket -> playerPosition(positionPacket);
+            case ClientboundPlayerCombatKillPacket killPacket -> playerDeath(killPacket);
+            case ClientboundKeepAlivePacket keepAlivePacket -> playerLatency(keepAlivePacket);
+            case ClientboundPongResponsePacket pongPacket -> pong(pongPacket);
+            case ClientboundBlockUpdatePacket blockUpdatePacket -> blockChange(blockUpdatePacket);
+            case ClientboundSectionBlocksUpdatePacket sectionPacket -> sectionBlocksChange(sectionPacket);
+            case ClientboundLevelChunkWithLightPacket chunkPacket -> chunkLoad(chunkPacket);
+            case ClientboundForgetLevelChunkPacket forgetPacket -> this.bot.chunkUnloaded(forgetPacket.getX(), forgetPacket.getZ());
+            case ClientboundRespawnPacket respawnPacket -> respawn(respawnPacket);
+            case ClientboundRegistryDataPacket registryPacket -> registryData(registryPacket);
+            default -> {
+            }
+        }
+        // After handling, so scripts see the state the packet caused
+        this.bot.completePacketWaiters(packet);
+    }
+
+    private void gameEvent(ClientboundGameEventPacket gameEventPacket) {
+        if (gameEventPacket.getNotification() == GameEvent.IMMEDIATE_RESPAWN) {
+            RespawnScreenValue respawnScreenValue = (RespawnScreenValue) gameEventPacket.getValue();
+            if (respawnScreenValue == RespawnScreenValue.IMMEDIATE_RESPAWN) {
+                this.autoRespawnDelay = 0;
+            } else {
+                this.autoRespawnDelay = this.botManager.getAutoRespawnDelay();
+            }
+        }
+    }
+
+    private void login(ClientboundLoginPacket loginPacket) {
+        this.entityId = loginPacket.getEntityId();
+        this.bot.getLatencyStats().record(LatencyType.LOGIN, System.nanoTime() - this.bot.getConnectTime(), TimeUnit.NANOSECONDS);
+        if (this.loginPhase == LatencyType.JOIN_GAME) {
+            nextLoginPhase(LatencyType.LOGIN);
+        } else {
+            this.loginPhase = LatencyType.LOGIN;
+        }
+        // Done logging in, let the next bot in
+        this.botManager.getLoginPipeline().complete(this.bot, null);
+        this.botManager.getLifecycleLog().record(BotLifecycleLog.Type.CONNECTED, this.bot.getNickname());
+        spawnInfo(loginPacket.getCommonPlayerSpawnInfo());
+        // Game packet IDs are known from here on
+        PacketFilter packetFilter = this.botManager.getPacketFilter();
+        if (packetFilter != null) packetFilter.install(this.bot);
+        if (!loginPacket.isEnableRespawnScreen()) {
+            this.autoRespawnDelay = 0;
+        }
+        // Delay to make sure gravity works
+        // No clue why it is needed, but here we are
+        this.scheduler.schedule(this.bot, () -> {
+            PacketListener.this.bot.setConnected(true);
+            startPingTimer();
+        }, 50, TimeUnit.MILLISECONDS);
+    }
+
+    private void playerPosition(ClientboundPlayerPositionPacket packet) {
+        Vector3d position = packet.getPosition();
+        this.bot.setLastPosition(position.getX(), position.getY(), position.getZ());
+        this.client.send(new ServerboundAcceptTeleportationPacket(packet.getId()));
+    }
+
+    @SuppressWarnings("unused")
+    private void playerDeath(ClientboundPlayerCombatKillPacket killPacket) {
+        if (this.autoRespawnDelay < 0) return;
+        this.scheduler.schedule(this.bot, () -> PacketListener.this.client.send(new ServerboundClientCommandPacket(ClientCommand.RESPAWN)),
+            this.autoRespawnDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private void playerLatency(ClientboundKeepAlivePacket keepAlivePacket) {
+        long now = System.nanoTime();
+        if (this.lastKeepAlive > 0) {
+            this.bot.getLatencyStats().record(LatencyType.KEEP_ALIVE_INTERVAL, now - this.lastKeepAlive, TimeUnit.NANOSECONDS);
+        }
+        this.lastKeepAlive = now;
+        this.scheduler.schedule(this.bot, () -> PacketListener.this.client.send(new ServerboundKeepAlivePacket(keepAlivePacket.getPingId())),
+            this.latency, TimeUnit.MILLISECONDS);
+    }
+
+    private void pong(ClientboundPongResponsePacket packet) {
+        // The ping ID is the time the request was sent
+        this.bot.getLatencyStats().record(LatencyType.PING, System.nanoTime() - packet.getPingTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void blockChange(ClientboundBlockUpdatePacket packet) {
+        BlockChangeEntry entry = packet.getEntry();
+        this.bot.blockChange(entry.getPosition(), entry.getBlock());
+    }
+
+    private void sectionBlocksChange(ClientboundSectionBlocksUpdatePacket packet) {
+        for (BlockChangeEntry entry : packet.getEntries()) {
+            this.bot.blockChange(entry.getPosition(), entry.getBlock());
+        }
+    }
+
+    private void chunkLoad(ClientboundLevelChunkWithLightPacket packet) {
+        // Compare by name, we only need the motion blocking heightmap
+        for (var entry : packet.getHeightMaps().entrySet()) {
+            if (entry.getKey().toString().equals("MOTION_BLOCKING")) {
+                this.bot.chunkLoaded(packet.getX(), packet.getZ(), entry.getValue());
+                return;
+            }
+        }
+    }
+
+    private void registryData(ClientboundRegistryDataPacket packet) {
+        if (!packet.getRegistry().asString().equals("minecraft:dimension_type")) return;
+        this.dimensionMinY.clear();
+        for (RegistryEntry entry : packet.getEntries()) {
+            NbtMap data = entry.getData();
+            int defaultMinY = defaultMinY(entry.getId());
+            // Data is not sent for entries of known packs
+            this.dimensionMinY.add(data != null ? data.getInt("min_y", defaultMinY) : defaultMinY);
+        }
+    }
+
+    private void respawn(ClientboundRespawnPacket packet) {
+        // Like vanilla, chunks are sent again after a respawn, even in the same world
+        this.bot.releaseChunks();
+        spawnInfo(packet.getCommonPlayerSpawnInfo());
+    }
+
+    private void spawnInfo(PlayerSpawnInfo spawnInfo) {
+        int dimension = spawnInfo.getDimension();
+        int minY = dimension >= 0 && dimension < this.dimensionMinY.size() ?
+            this.dimensionMinY.get(dimension) : defaultMinY(spawnInfo.getWorldName());
+        this.bot.setWorld(spawnInfo.getWorldName().asString(), minY);
+    }
+
+    private static int defaultMinY(Key key) {
+        String value = key.value();
+        return value.contains("nether") || value.endsWith("the_end") ? 0 : -64;
+    }
+
+    // Record the time of the current phase and start the next one
+    // Phases happen once per bot, so they only go into the global stats
+    private void nextLoginPhase(LatencyType next) {
+        long now = System.nanoTime();
+        this.botManager.getLatencyStats().record(this.loginPhase, now - this.phaseStart, TimeUnit.NANOSECONDS);
+        this.loginPhase = next;
+        this.phaseStart = now;
+    }
+
+    @Override
+    public void disconnected(DisconnectedEvent event) {
+        if (this.bot.isManualDisconnecting()) {
+            // We gave up on the bot ourselves, not a failure of the server
+            this.botManager.getLoginPipeline().release(this.bot);
+        } else if (this.loginPhase != LatencyType.LOGIN) {
+            // Still logging in, no-op if the bot never went through the pipeline
+            LoginFailure failure = LoginPipeline.classify(event.getReason(), event.getCause(),
+                this.loginPhase != LatencyType.TCP_CONNECT);
+            this.botManager.getLoginPipeline().complete(this.bot, failure);
+        }
+        this.bot.setConnected(false);
+        this.scheduler.cancelTasks(this.bot);
+        this.bot.releaseChunks();
+        this.bot.failPacketWaiters();
+        // Reasons are serialized and grouped on the log thread
+        this.botManager.getLifecycleLog().record(BotLifecycleLog.Type.DISCONNECTED, this.bot.getNickname(), event.getReason());
+        this.botManager.removeBot(this.bot);
+    }
+
+    private void startPingTimer() {
+        this.scheduler.scheduleAtFixedRate(this.bot, () -> PacketListener.this.client.send(new ServerboundPingRequestPacket(System.nanoTime())),
+            1, 1, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.shanebeestudios.stress.api.chat;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chat message or command with placeholders
+ * <p>Placeholders: {@code {bot}} name of bot, {@code {count}} messages sent by the workload,
+ * {@code {random}} random number (0 - 9999), {@code {time}} current epoch milliseconds.
+ * A message starting with '/' is sent as command.</p>
+ * <p>Templates are parsed once, messages without placeholders are sent as the same string every time.</p>
+ */
+@SuppressWarnings("unused")
+public class ChatTemplate {
+
+    private static final String[] PLACEHOLDERS = {"{bot}", "{count}", "{random}", "{time}"};
+    private static final int BOT = 0, COUNT = 1, RANDOM = 2, TIME = 3;
+
+    private final String template;
+    private final int weight;
+    // Alternating literal parts and placeholder types
+    private final String[] literals;
+    private final int[] placeholders;
+
+    /**
+     * Create a template
+     *
+     * @param template Message or command (starting with '/') with placeholders
+     * @param weight   Weight of this template in a mix
+     */
+    public ChatTemplate(String template, int weight) {
+        if (weight <= 0) throw new IllegalArgumentException("Weight has to be positive");
+        this.template = template;
+        this.weight = weight;
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int found = -1;
+            int type = -1;
+            for (int i = 0; i < PLACEHOLDERS.length; i++) {
+                int index = template.indexOf(PLACEHOLDERS[i], start);
+                if (index >= 0 && (found < 0 || index < found)) {
+                    found = index;
+                    type = i;
+                }
+            }
+            if (found < 0) break;
+            literals.add(template.substring(start, found));
+            placeholders.add(type);
+            start = found + PLACEHOLDERS[type].length();
+        }
+        literals.add(template.substring(start));
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Get the raw template
+     *
+     * @return Template string
+     */
+    public String getTemplate() {
+        return this.template;
+    }
+
+    /**
+     * Get the weight of this template
+     *
+     * @return Weight in a mix
+     */
+    public int getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Check if this template is a command
+     *
+     * @return True if the template starts with '/'
+     */
+    public boolean isCommand() {
+        return this.template.startsWith("/");
+    }
+
+    /**
+     * Fill in the placeholders of this template
+     *
+     * @param bot     Bot sending the message
+     * @param count   Amount of messages sent so far
+     * @param builder Builder to re-use, is cleared first
+     * @return Message to send
+     */
+    public String render(Bot bot, long count, StringBuilder builder) {
+        if (this.placeholders.length == 0) return this.template;
+        builder.setLength(0);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            builder.append(this.literals[i]);
+            switch (this.placeholders[i]) {
+                case BOT -> builder.append(bot.getNickname());
+                case COUNT -> builder.append(count);
+                case RANDOM -> builder.append(ThreadLocalRandom.current().nextInt(10000));
+                case TIME -> builder.append(System.currentTimeMillis());
+            }
+        }
+        builder.append(this.literals[this.placeholders.length]);
+        // Messages are capped at 256 characters by the server
+        if (builder.length() > 256) builder.setLength(256);
+        return builder.toString();
+    }
+
+}
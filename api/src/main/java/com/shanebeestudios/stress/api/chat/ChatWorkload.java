@@ -0,0 +1,164 @@
+package com.shanebeestudios.stress.api.chat;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.timer.BotTask;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends chat messages and commands from all connected bots at a sustained rate
+ * <p>A global token bucket caps the total rate, and each bot has its own bucket (like the server's spam filter).
+ * Messages are picked from a weighted mix of {@link ChatTemplate templates}.</p>
+ * <p>Runs on the bot scheduler, per tick the bots are walked round-robin until the global bucket is empty.
+ * Per bot buckets live in one array indexed by bot ID.</p>
+ */
+@SuppressWarnings("unused")
+public class ChatWorkload {
+
+    // Scheduler tick the workload runs at
+    private static final long TICK_MS = 10;
+
+    private final BotManager botManager;
+    private final TokenBucket globalBucket;
+    private final long botInterval;
+    private final long botBurstTime;
+    private final ChatTemplate[] templates;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final StringBuilder builder = new StringBuilder(256);
+    private final LongAdder chats = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder botLimited = new LongAdder();
+    private long[] botBuckets = new long[0];
+    private int cursor;
+    private long count;
+    private BotTask task;
+
+    /**
+     * Create a chat workload
+     *
+     * @param botManager Bot manager of bots to send messages from
+     * @param templates  Templates to pick messages from by weight
+     * @param globalRate Max messages per second of all bots together
+     * @param botRate    Max messages per second of each bot
+     * @param botBurst   Max messages a bot can send at once after being idle
+     */
+    public ChatWorkload(BotManager botManager, List<ChatTemplate> templates, double globalRate, double botRate, int botBurst) {
+        if (templates.isEmpty()) throw new IllegalArgumentException("Templates cannot be empty");
+        this.botManager = botManager;
+        // Allow two ticks worth of burst, so the rate holds even if a tick is late
+        this.globalBucket = new TokenBucket(globalRate, (int) Math.max(1, Math.ceil(globalRate * TICK_MS * 2 / 1000)));
+        TokenBucket botBucket = new TokenBucket(botRate, botBurst);
+        this.botInterval = botBucket.getInterval();
+        this.botBurstTime = botBucket.getInterval() * botBucket.getBurst();
+        this.templates = templates.toArray(new ChatTemplate[0]);
+        this.cumulativeWeights = new int[this.templates.length];
+        int total = 0;
+        for (int i = 0; i < this.templates.length; i++) {
+            total += this.templates[i].getWeight();
+            this.cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Start sending messages
+     */
+    public void start() {
+        if (this.task != null) return;
+        this.task = this.botManager.getScheduler().scheduleAtFixedRate(null, this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop sending messages
+     */
+    public void stop() {
+        if (this.task == null) return;
+        this.task.cancel();
+        this.task = null;
+    }
+
+    /**
+     * Check if this workload is running
+     *
+     * @return True if running
+     */
+    public boolean isRunning() {
+        return this.task != null;
+    }
+
+    /**
+     * Get the amount of chat messages sent
+     *
+     * @return Chat messages sent
+     */
+    public long getChatsSent() {
+        return this.chats.sum();
+    }
+
+    /**
+     * Get the amount of commands sent
+     *
+     * @return Commands sent
+     */
+    public long getCommandsSent() {
+        return this.commands.sum();
+    }
+
+    /**
+     * Get how often a bot was skipped because its own bucket was empty
+     *
+     * @return Times a bot was rate limited
+     */
+    public long getBotLimited() {
+        return this.botLimited.sum();
+    }
+
+    private void tick() {
+        Bot[] bots = this.botManager.getRegistry().snapshot();
+        if (bots.length == 0) return;
+        int idBound = this.botManager.getRegistry().getIdBound();
+        if (this.botBuckets.length < idBound) {
+            int oldLength = this.botBuckets.length;
+            this.botBuckets = Arrays.copyOf(this.botBuckets, Math.max(idBound, oldLength * 2));
+            // New buckets start full
+            Arrays.fill(this.botBuckets, oldLength, this.botBuckets.length, Long.MIN_VALUE);
+        }
+        long now = System.nanoTime();
+        // Walk each bot at most once per tick, starting where the last tick stopped
+        for (int checked = 0; checked < bots.length; checked++) {
+            if (this.cursor >= bots.length) this.cursor = 0;
+            Bot bot = bots[this.cursor++];
+            int id = bot.getId();
+            if (id < 0 || id >= this.botBuckets.length || !bot.isConnected()) continue;
+            if (!TokenBucket.tryAcquire(this.botBuckets, id, now, this.botInterval, this.botBurstTime)) {
+                this.botLimited.increment();
+                continue;
+            }
+            if (!this.globalBucket.tryAcquire()) {
+                // Give the bot its token back, it was not used
+                this.botBuckets[id] -= this.botInterval;
+                this.cursor--;
+                return;
+            }
+            ChatTemplate template = pick();
+            bot.sendChat(template.render(bot, this.count++, this.builder));
+            (template.isCommand() ? this.commands : this.chats).increment();
+        }
+    }
+
+    private ChatTemplate pick() {
+        if (this.templates.length == 1) return this.templates[0];
+        int roll = ThreadLocalRandom.current().nextInt(this.totalWeight);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (roll < this.cumulativeWeights[i]) return this.templates[i];
+        }
+        return this.templates[this.templates.length - 1];
+    }
+
+}
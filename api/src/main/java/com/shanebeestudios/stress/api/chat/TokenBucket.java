@@ -0,0 +1,84 @@
+package com.shanebeestudios.stress.api.chat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket
+ * <p>Stores only the time the bucket is full again (GCRA), so taking a token is a single CAS and never allocates.</p>
+ */
+@SuppressWarnings("unused")
+public class TokenBucket {
+
+    private final long interval;
+    private final long burstTime;
+    private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Create a token bucket
+     *
+     * @param perSecond Tokens added per second
+     * @param burst     Max tokens the bucket holds
+     */
+    public TokenBucket(double perSecond, int burst) {
+        if (perSecond <= 0) throw new IllegalArgumentException("Rate has to be positive");
+        this.interval = Math.max(1, (long) (1_000_000_000 / perSecond));
+        this.burstTime = this.interval * Math.max(1, burst);
+    }
+
+    /**
+     * Try to take a token
+     *
+     * @return True if a token was taken, false if the bucket is empty
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    // Package private for tests
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = this.fullAt.get();
+            // An idle bucket is full, which allows burst tokens until it is full again burstTime from now
+            long next = Math.max(current, now) + this.interval;
+            if (next - now > this.burstTime) return false;
+            if (this.fullAt.compareAndSet(current, next)) return true;
+        }
+    }
+
+    /**
+     * Get the time between tokens
+     *
+     * @return Nanoseconds between tokens
+     */
+    public long getInterval() {
+        return this.interval;
+    }
+
+    /**
+     * Get the max tokens the bucket holds
+     *
+     * @return Burst size
+     */
+    public int getBurst() {
+        return (int) (this.burstTime / this.interval);
+    }
+
+    /**
+     * Try to take a token from a bucket stored as a single long
+     * <p>Used for many small buckets in one array without an object per bucket.</p>
+     *
+     * @param buckets   Array of bucket states
+     * @param index     Index of bucket in array
+     * @param now       Current {@link System#nanoTime()}
+     * @param interval  Nanoseconds between tokens
+     * @param burstTime Nanoseconds the bucket takes to fill up completely
+     * @return True if a token was taken
+     */
+    public static boolean tryAcquire(long[] buckets, int index, long now, long interval, long burstTime) {
+        long next = Math.max(buckets[index], now) + interval;
+        if (next - now > burstTime) return false;
+        buckets[index] = next;
+        return true;
+    }
+
+}
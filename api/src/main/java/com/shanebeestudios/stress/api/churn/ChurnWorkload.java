@@ -0,0 +1,264 @@
+package com.shanebeestudios.stress.api.churn;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.chat.TokenBucket;
+import com.shanebeestudios.stress.api.timer.BotTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds a population of bots while they keep leaving and joining again
+ * <p>Each bot stays for a session picked from a {@link SessionLength}, then leaves and a bot joins in its place.
+ * Bots that left rejoin with the same name a few seconds later, so the server loads and saves the same player data.</p>
+ * <p>Joins and leaves are capped at a rate per second. When bots fail to connect or are kicked,
+ * joins back off exponentially until a bot connects again.</p>
+ */
+@SuppressWarnings("unused")
+public class ChurnWorkload {
+
+    // Scheduler tick the workload runs at
+    private static final long TICK_MS = 100;
+    // A bot which is not connected after this long counts as failed
+    private static final long CONNECT_TIMEOUT = 30000;
+    // Time a name stays offline, so the server finished disconnecting the old player before it rejoins
+    private static final long MIN_OFFLINE_TIME = 5000;
+
+    private final BotManager botManager;
+    private final int target;
+    private final SessionLength sessionLength;
+    private final TokenBucket joinBucket;
+    private final TokenBucket leaveBucket;
+    private final long minBackoff;
+    private final long maxBackoff;
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder leaves = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder kicked = new LongAdder();
+    // Only touched by the scheduler thread
+    private final List<Session> sessions = new ArrayList<>();
+    private final Deque<OfflineName> offlineNames = new ArrayDeque<>();
+    private int failureStreak;
+    private long backoffUntil;
+    private volatile int population;
+    private volatile long backoff;
+    private BotTask task;
+
+    /**
+     * Create a churn workload
+     *
+     * @param botManager    Bot manager to create bots with
+     * @param target        Amount of bots to hold
+     * @param leaveRate     Max bots leaving per second
+     * @param joinRate      Max bots joining per second
+     * @param sessionLength Length of sessions, null for exponential sessions which make bots leave at the leave rate
+     * @param minBackoff    Delay of joins in milliseconds after the first failure, doubled for each failure after
+     * @param maxBackoff    Max delay of joins in milliseconds after failures
+     */
+    public ChurnWorkload(BotManager botManager, int target, double leaveRate, double joinRate, @Nullable SessionLength sessionLength,
+                         long minBackoff, long maxBackoff) {
+        if (target <= 0) throw new IllegalArgumentException("Target has to be positive");
+        this.botManager = botManager;
+        this.target = target;
+        // Allow two ticks worth of burst, so the rate holds even if a tick is late
+        this.leaveBucket = new TokenBucket(leaveRate, (int) Math.max(1, Math.ceil(leaveRate * TICK_MS * 2 / 1000)));
+        this.joinBucket = new TokenBucket(joinRate, (int) Math.max(1, Math.ceil(joinRate * TICK_MS * 2 / 1000)));
+        // N bots with a mean session of N / rate seconds leave at the rate
+        this.sessionLength = sessionLength != null ? sessionLength : SessionLength.exponential((long) (target * 1000 / leaveRate));
+        this.minBackoff = minBackoff;
+        this.maxBackoff = Math.max(minBackoff, maxBackoff);
+    }
+
+    /**
+     * Start holding the population
+     */
+    public void start() {
+        if (this.task != null) return;
+        this.task = this.botManager.getScheduler().scheduleAtFixedRate(null, this::tick, 0, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop joining and leaving
+     * <p>Bots which are connected stay connected</p>
+     */
+    public void stop() {
+        if (this.task == null) return;
+        this.task.cancel();
+        this.task = null;
+    }
+
+    /**
+     * Check if this workload is running
+     *
+     * @return True if running
+     */
+    public boolean isRunning() {
+        return this.task != null;
+    }
+
+    /**
+     * Get the amount of bots to hold
+     *
+     * @return Target amount of bots
+     */
+    public int getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Get the amount of bots of this workload which are connected or connecting
+     *
+     * @return Current population
+     */
+    public int getPopulation() {
+        return this.population;
+    }
+
+    /**
+     * Get the amount of bots which were created to join
+     *
+     * @return Joins
+     */
+    public long getJoins() {
+        return this.joins.sum();
+    }
+
+    /**
+     * Get the amount of bots which left at the end of their session
+     *
+     * @return Leaves
+     */
+    public long getLeaves() {
+        return this.leaves.sum();
+    }
+
+    /**
+     * Get the amount of bots which never connected
+     *
+     * @return Failed joins
+     */
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    /**
+     * Get the amount of bots which were disconnected before their session ended
+     *
+     * @return Kicked bots
+     */
+    public long getKicked() {
+        return this.kicked.sum();
+    }
+
+    /**
+     * Get the current delay of joins after failures
+     *
+     * @return Backoff in milliseconds, 0 if joins are not delayed
+     */
+    public long getBackoff() {
+        return this.backoff;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        Random random = ThreadLocalRandom.current();
+        int population = 0;
+        Iterator<Session> iterator = this.sessions.iterator();
+        while (iterator.hasNext()) {
+            Session session = iterator.next();
+            Bot bot = session.bot;
+            if (this.botManager.getRegistry().get(bot.getId()) != bot) {
+                // Removed without us asking, it failed to connect or was kicked
+                iterator.remove();
+                (session.leaveAt > 0 ? this.kicked : this.failed).increment();
+                addOfflineName(bot.getNickname(), now);
+                failure(now, random);
+                continue;
+            }
+            if (session.leaveAt == 0) {
+                if (bot.isConnected()) {
+                    // The session starts once the bot is in the world
+                    session.leaveAt = now + Math.max(1, this.sessionLength.sample(random));
+                    this.failureStreak = 0;
+                    this.backoff = 0;
+                } else if (now - session.createdAt > CONNECT_TIMEOUT) {
+                    iterator.remove();
+                    this.botManager.disconnectBot(bot);
+                    this.failed.increment();
+                    addOfflineName(bot.getNickname(), now);
+                    failure(now, random);
+                    continue;
+                }
+            } else if (now >= session.leaveAt && this.leaveBucket.tryAcquire()) {
+                iterator.remove();
+                this.botManager.disconnectBot(bot);
+                this.leaves.increment();
+                addOfflineName(bot.getNickname(), now);
+                continue;
+            }
+            population++;
+        }
+
+        if (now >= this.backoffUntil) {
+            while (population < this.target && this.joinBucket.tryAcquire()) {
+                // Bots that left come back with the same name, once they were offline long enough
+                OfflineName offline = this.offlineNames.peek();
+                String name = null;
+                if (offline != null && now - offline.offlineAt >= MIN_OFFLINE_TIME) {
+                    this.offlineNames.poll();
+                    name = offline.name;
+                }
+                Bot bot = this.botManager.createBot(name);
+                if (bot == null) {
+                    // Name is taken or online, try a new one next time
+                    if (name == null) break;
+                    continue;
+                }
+                this.sessions.add(new Session(bot, now));
+                this.joins.increment();
+                population++;
+            }
+        }
+        this.population = population;
+    }
+
+    private void addOfflineName(String name, long now) {
+        // Enough names to rejoin the whole population
+        if (this.offlineNames.size() < this.target) this.offlineNames.offer(new OfflineName(name, now));
+    }
+
+    private void failure(long now, Random random) {
+        long delay = Math.min(this.maxBackoff, this.minBackoff << Math.min(this.failureStreak, 20));
+        this.failureStreak++;
+        // Jitter, so bots of different runs don't retry together
+        this.backoff = delay / 2 + random.nextLong(delay / 2 + 1);
+        this.backoffUntil = Math.max(this.backoffUntil, now + this.backoff);
+    }
+
+    private record OfflineName(String name, long offlineAt) {
+    }
+
+    private static class Session {
+
+        private final Bot bot;
+        private final long createdAt;
+        // Time the session ends, 0 until the bot connected
+        private long leaveAt;
+
+        private Session(Bot bot, long createdAt) {
+            this.bot = bot;
+            this.createdAt = createdAt;
+        }
+
+    }
+
+}
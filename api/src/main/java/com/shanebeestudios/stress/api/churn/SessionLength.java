@@ -0,0 +1,75 @@
+package com.shanebeestudios.stress.api.churn;
+
+import java.util.Random;
+
+/**
+ * Distribution of how long a bot stays connected in a {@link ChurnWorkload}
+ */
+@FunctionalInterface
+public interface SessionLength {
+
+    /**
+     * Pick the length of a session
+     *
+     * @param random Random to sample with
+     * @return Length of session in milliseconds
+     */
+    long sample(Random random);
+
+    /**
+     * Keep sessions between a min and max length
+     *
+     * @param min Min length in milliseconds
+     * @param max Max length in milliseconds
+     * @return Clamped session length
+     */
+    default SessionLength clamp(long min, long max) {
+        if (min > max) throw new IllegalArgumentException("Min length can't be above max length");
+        return random -> Math.clamp(sample(random), min, max);
+    }
+
+    /**
+     * Every session has the same length
+     *
+     * @param length Length in milliseconds
+     * @return Session length
+     */
+    static SessionLength fixed(long length) {
+        return random -> length;
+    }
+
+    /**
+     * Session lengths spread evenly between a min and max
+     *
+     * @param min Min length in milliseconds
+     * @param max Max length in milliseconds
+     * @return Session length
+     */
+    static SessionLength uniform(long min, long max) {
+        if (min >= max) return fixed(min);
+        return random -> random.nextLong(min, max);
+    }
+
+    /**
+     * Session lengths where bots leave at a constant rate, most sessions are short and some are long
+     * <p>With N bots online and a mean of M seconds, about N/M bots leave per second</p>
+     *
+     * @param mean Mean length in milliseconds
+     * @return Session length
+     */
+    static SessionLength exponential(long mean) {
+        return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Session lengths like real players, most sessions are near the median with a long tail
+     *
+     * @param median Median length in milliseconds
+     * @param sigma  Spread, higher gives a longer tail (ie: 1.0)
+     * @return Session length
+     */
+    static SessionLength logNormal(long median, double sigma) {
+        return random -> (long) (median * Math.exp(sigma * random.nextGaussian()));
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.shanebeestudios.stress.api.generator;
+
+import com.shanebeestudios.stress.api.util.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator to create nicknames for bots
+ * <p>Names are handed out without replacement, in a shuffled order. Once all names of the file are in use,
+ * the next round adds a number to them. Names of bots that left are {@link #release(String) released} and used again.</p>
+ * <p>Nickname files are memory mapped, only the offsets of valid names are kept on the heap.</p>
+ */
+@SuppressWarnings("FieldCanBeLocal")
+public class NickGenerator {
+
+    private static final int DEFAULT_NICK_LENGTH = 16; // Minecraft names can only be this long
+    private static final int MIN_NICK_LENGTH = 3;
+    private static final int FEISTEL_ROUNDS = 4;
+    // Marks names which were not handed out by this generator
+    private static final long RESERVED = -1;
+    private final String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final SecureRandom random = new SecureRandom();
+    // Names currently in use, mapped to the index they were handed out for
+    private final Map<String, Long> inUse = new ConcurrentHashMap<>();
+    private final Queue<Long> released = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextIndex = new AtomicLong();
+    private final int[] keys = new int[FEISTEL_ROUNDS];
+    private ByteBuffer data;
+    private int[] offsets = new int[0];
+    private byte[] lengths = new byte[0];
+    private int size;
+    private int halfBits;
+    private int halfMask;
+    private int nickLength = DEFAULT_NICK_LENGTH;
+    private boolean real;
+    private String prefix = "";
+
+    /**
+     * Create a new instance of the nickname generator
+     *
+     * @param path             Path for nickname file (if null will generate from built in file)
+     * @param prefix           Prefix for nicknames
+     * @param useRealNicknames Whether or not to use real nicknames (or generate random ones)
+     */
+    public NickGenerator(@Nullable String path, String prefix, boolean useRealNicknames) {
+        if (path != null) {
+            Logger.info("Loading nicknames from specified file");
+            int nicksCount = loadFromFile(path);
+
+            if (nicksCount == 0) {
+                Logger.error("No valid nicknames loaded");
+                System.exit(1);
+            } else {
+                Logger.info("Loaded %s nicknames", this.size);
+            }
+        } else {
+            if (useRealNicknames && this.data == null) {
+                loadDefaultFile();
+                Logger.info("Loaded %s nicknames", this.size);
+            }
+            this.real = useRealNicknames;
+        }
+        this.nickLength = DEFAULT_NICK_LENGTH - prefix.length();
+        this.prefix = prefix;
+        for (int i = 0; i < FEISTEL_ROUNDS; i++) {
+            this.keys[i] = this.random.nextInt();
+        }
+        // Smallest even power of two domain which fits all names, so it splits in two halves
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(Math.max(1, this.size - 1)));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1 << this.halfBits) - 1;
+    }
+
+    private int loadFromFile(String filePath) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                Logger.error("Nicknames file is too large, loading default file!");
+                loadDefaultFile();
+            } else {
+                // The mapping stays valid after the channel is closed
+                index(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } catch (NoSuchFileException ignore) {
+            Logger.error("Invalid nicknames list file path, loading default file!");
+            loadDefaultFile();
+        } catch (IOException e) {
+            Logger.error("Failed to read nicknames file, loading default file!");
+            Logger.error(e);
+            loadDefaultFile();
+        }
+        this.real = true;
+        return this.size;
+    }
+
+    private void loadDefaultFile() {
+        try (InputStream resource = getClass().getResourceAsStream("/nicks.txt")) {
+            assert resource != null;
+            index(ByteBuffer.wrap(resource.readAllBytes()));
+        } catch (Exception e) {
+            Logger.error(e);
+            System.exit(1);
+        }
+    }
+
+    // Find all valid names in one pass, names are only read from the buffer once handed out
+    private void index(ByteBuffer buffer) {
+        int[] offsets = new int[1024];
+        byte[] lengths = new byte[1024];
+        int count = 0;
+        int limit = buffer.limit();
+        int start = 0;
+        boolean valid = true;
+        for (int i = 0; i <= limit; i++) {
+            byte b = i < limit ? buffer.get(i) : '\n';
+            if (b == '\n') {
+                int length = i - start;
+                // Windows line endings
+                if (length > 0 && buffer.get(i - 1) == '\r') length--;
+                if (valid && length >= MIN_NICK_LENGTH && length <= DEFAULT_NICK_LENGTH) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                        lengths = Arrays.copyOf(lengths, count * 2);
+                    }
+                    offsets[count] = start;
+                    lengths[count] = (byte) length;
+                    count++;
+                }
+                start = i + 1;
+                valid = true;
+            } else if (b != '\r' && !isValidChar(b)) {
+                valid = false;
+            }
+        }
+        this.data = buffer;
+        this.offsets = Arrays.copyOf(offsets, count);
+        this.lengths = Arrays.copyOf(lengths, count);
+        this.size = count;
+    }
+
+    private static boolean isValidChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_';
+    }
+
+    private String generateRandom(int len) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder result = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            result.append(CHARS.charAt(random.nextInt(CHARS.length())));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Get next real nickname
+     * <p>The name is in use until it is {@link #release(String) released}</p>
+     *
+     * @return Next real nickname
+     */
+    public String nextReal() {
+        if (this.size == 0) return nextRandom();
+        while (true) {
+            Long index = this.released.poll();
+            long next = index != null ? index : this.nextIndex.getAndIncrement();
+            String nick = nameOf(next);
+            // Skip names taken by hand or cut short to the same name
+            if (this.inUse.putIfAbsent(nick, next) == null) return nick;
+        }
+    }
+
+    /**
+     * Generate next nickname
+     * <p>If not using real nicknames, this will generate a random name</p>
+     * <p>The name is in use until it is {@link #release(String) released}</p>
+     *
+     * @return generated nick
+     */
+    public String nextNick() {
+        return this.real ? nextReal() : nextRandom();
+    }
+
+    private String nextRandom() {
+        while (true) {
+            String nick = this.prefix + generateRandom(this.nickLength);
+            if (this.inUse.putIfAbsent(nick, RESERVED) == null) return nick;
+        }
+    }
+
+    /**
+     * Reserve a name which was not handed out by this generator
+     * <p>Reserved names are not handed out until they are {@link #release(String) released}</p>
+     *
+     * @param name Name to reserve
+     * @return False if the name is already in use
+     */
+    public boolean reserve(String name) {
+        return this.inUse.putIfAbsent(name, RESERVED) == null;
+    }
+
+    /**
+     * Release a name, so it can be handed out again
+     *
+     * @param name Name to release
+     */
+    public void release(String name) {
+        Long index = this.inUse.remove(name);
+        if (index != null && index != RESERVED) this.released.offer(index);
+    }
+
+    /**
+     * Get the amount of names currently in use
+     *
+     * @return Names in use
+     */
+    public int getInUse() {
+        return this.inUse.size();
+    }
+
+    /**
+     * Get the amount of valid names in the nicknames file
+     *
+     * @return Amount of names, 0 if names are random
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    private String nameOf(long index) {
+        long round = index / this.size;
+        int line = permute((int) (index % this.size));
+        byte[] bytes = new byte[this.lengths[line]];
+        this.data.get(this.offsets[line], bytes);
+        String nick = this.prefix + new String(bytes, StandardCharsets.US_ASCII);
+        if (round == 0) return nick.length() <= DEFAULT_NICK_LENGTH ? nick : nick.substring(0, DEFAULT_NICK_LENGTH);
+        // Later rounds make names unique with a number
+        String suffix = String.valueOf(round);
+        int keep = Math.min(nick.length(), DEFAULT_NICK_LENGTH - suffix.length());
+        return nick.substring(0, keep) + suffix;
+    }
+
+    // Shuffle by a keyed feistel network, walking the cycle until the result is a valid line
+    private int permute(int index) {
+        int value = index;
+        do {
+            int left = value >>> this.halfBits;
+            int right = value & this.halfMask;
+            for (int round = 0; round < FEISTEL_ROUNDS; round++) {
+                int next = left ^ (mix(right, this.keys[round]) & this.halfMask);
+                left = right;
+                right = next;
+            }
+            value = (left << this.halfBits) | right;
+        } while (value >= this.size);
+        return value;
+    }
+
+    private static int mix(int value, int key) {
+        int hash = (value ^ key) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.shanebeestudios.stress.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies
+ * <p>Values are stored in microseconds, in buckets which double in size for every power of two,
+ * each split in a fixed amount of sub buckets (like HdrHistogram).
+ * Recording is a single atomic increment and never allocates.</p>
+ */
+@SuppressWarnings("unused")
+public class LatencyHistogram {
+
+    // Highest power of two (in microseconds) that can be recorded, larger values are capped
+    private static final int MAX_BITS = 36;
+
+    private final int subBits;
+    private final int subCount;
+    private final long maxValue;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray totals = new AtomicLongArray(2);
+
+    /**
+     * Create a new histogram
+     *
+     * @param precisionBits Bits of precision per power of two, ie: 3 = 8 sub buckets (~12%), 6 = 64 sub buckets (~1.5%)
+     */
+    public LatencyHistogram(int precisionBits) {
+        this.subBits = precisionBits;
+        this.subCount = 1 << precisionBits;
+        this.maxValue = (1L << MAX_BITS) - 1;
+        this.counts = new AtomicLongArray(index(this.maxValue) + 1);
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param value Latency to record
+     * @param unit  Unit of latency
+     */
+    public void record(long value, TimeUnit unit) {
+        long micros = Math.min(this.maxValue, Math.max(0, unit.toMicros(value)));
+        this.counts.incrementAndGet(index(micros));
+        this.totals.incrementAndGet(0);
+        this.totals.addAndGet(1, micros);
+    }
+
+    /**
+     * Get the amount of recorded values
+     *
+     * @return Amount of values
+     */
+    public long getCount() {
+        return this.totals.get(0);
+    }
+
+    /**
+     * Get the mean of all recorded values
+     *
+     * @return Mean in milliseconds
+     */
+    public double getMean() {
+        long count = this.totals.get(0);
+        return count == 0 ? 0 : this.totals.get(1) / (double) count / 1000d;
+    }
+
+    /**
+     * Get a percentile of all recorded values
+     *
+     * @param percentile Percentile to get (0 - 1), ie: 0.99 for p99
+     * @return Value at percentile in milliseconds, 0 if nothing was recorded
+     */
+    public double getPercentile(double percentile) {
+        long count = this.totals.get(0);
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            seen += this.counts.get(i);
+            if (seen >= target) return valueAt(i) / 1000d;
+        }
+        return valueAt(this.counts.length() - 1) / 1000d;
+    }
+
+    /**
+     * Add all values of another histogram to this histogram
+     *
+     * @param other Histogram to add, must have the same precision
+     */
+    public void merge(LatencyHistogram other) {
+        if (other.subBits != this.subBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with different precision");
+        }
+        for (int i = 0; i < this.counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) this.counts.addAndGet(i, count);
+        }
+        this.totals.addAndGet(0, other.totals.get(0));
+        this.totals.addAndGet(1, other.totals.get(1));
+    }
+
+    /**
+     * Encode this histogram to a compact string
+     * <p>Only buckets with values are included, used to send histograms between processes</p>
+     *
+     * @return Encoded histogram
+     * @see #decode(String)
+     */
+    public String encode() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.subBits).append('/').append(this.totals.get(0)).append('/').append(this.totals.get(1));
+        for (int i = 0; i < this.counts.length(); i++) {
+            long count = this.counts.get(i);
+            if (count != 0) builder.append('/').append(i).append(':').append(count);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decode a histogram encoded by {@link #encode()}
+     *
+     * @param encoded Encoded histogram
+     * @return Decoded histogram
+     * @throws IllegalArgumentException If the string is not an encoded histogram
+     */
+    public static LatencyHistogram decode(String encoded) {
+        String[] split = encoded.split("/");
+        if (split.length < 3) throw new IllegalArgumentException("Invalid histogram '" + encoded + "'");
+        try {
+            LatencyHistogram histogram = new LatencyHistogram(Integer.parseInt(split[0]));
+            histogram.totals.set(0, Long.parseLong(split[1]));
+            histogram.totals.set(1, Long.parseLong(split[2]));
+            for (int i = 3; i < split.length; i++) {
+                int colon = split[i].indexOf(':');
+                histogram.counts.set(Integer.parseInt(split[i], 0, colon, 10), Long.parseLong(split[i].substring(colon + 1)));
+            }
+            return histogram;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid histogram '" + encoded + "'", e);
+        }
+    }
+
+    /**
+     * Clear all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < this.counts.length(); i++) {
+            this.counts.set(i, 0);
+        }
+        this.totals.set(0, 0);
+        this.totals.set(1, 0);
+    }
+
+    private int index(long value) {
+        if (value < this.subCount) return (int) value;
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - this.subBits;
+        int sub = (int) (value >>> shift) - this.subCount;
+        return this.subCount + shift * this.subCount + sub;
+    }
+
+    // Middle of the bucket at index
+    private long valueAt(int index) {
+        if (index < this.subCount) return index;
+        int shift = (index - this.subCount) / this.subCount;
+        int sub = (index - this.subCount) % this.subCount;
+        long lower = (long) (this.subCount + sub) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.shanebeestudios.stress.api.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histograms for each {@link LatencyType}
+ * <p>Values recorded into bot stats are also recorded into the global stats they belong to.
+ * Histograms are created on first use, so bots only pay for the types they record.</p>
+ */
+@SuppressWarnings("unused")
+public class LatencyStats {
+
+    private static final LatencyType[] TYPES = LatencyType.values();
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(TYPES.length);
+    private final LatencyStats parent;
+    private final int precisionBits;
+
+    /**
+     * Create global latency stats
+     */
+    public LatencyStats() {
+        this(null, 6);
+    }
+
+    /**
+     * Create latency stats
+     *
+     * @param parent        Stats to also record values into
+     * @param precisionBits Precision of histograms, see {@link LatencyHistogram#LatencyHistogram(int)}
+     */
+    public LatencyStats(@Nullable LatencyStats parent, int precisionBits) {
+        this.parent = parent;
+        this.precisionBits = precisionBits;
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param type  Type of latency
+     * @param value Latency to record
+     * @param unit  Unit of latency
+     */
+    public void record(LatencyType type, long value, TimeUnit unit) {
+        get(type).record(value, unit);
+        if (this.parent != null) this.parent.record(type, value, unit);
+    }
+
+    /**
+     * Get the histogram of a latency type
+     *
+     * @param type Type of latency
+     * @return Histogram of type
+     */
+    public LatencyHistogram get(LatencyType type) {
+        int index = type.ordinal();
+        LatencyHistogram histogram = this.histograms.get(index);
+        if (histogram != null) return histogram;
+        LatencyHistogram created = new LatencyHistogram(this.precisionBits);
+        // Another thread may have created it first
+        return this.histograms.compareAndSet(index, null, created) ? created : this.histograms.get(index);
+    }
+
+}
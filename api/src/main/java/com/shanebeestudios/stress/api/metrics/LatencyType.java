@@ -0,0 +1,41 @@
+package com.shanebeestudios.stress.api.metrics;
+
+/**
+ * Types of latency measured by bots
+ */
+public enum LatencyType {
+
+    /**
+     * Time from connecting until the server sent the login (join game) packet
+     */
+    LOGIN,
+    /**
+     * Time from connecting until the TCP connection was open
+     */
+    TCP_CONNECT,
+    /**
+     * Time from the TCP connection being open until the first answer of the server to the handshake
+     */
+    HANDSHAKE,
+    /**
+     * Time from the first answer of the server until the login finished
+     */
+    LOGIN_STATE,
+    /**
+     * Time from the login finishing until the configuration finished
+     */
+    CONFIGURATION,
+    /**
+     * Time from the configuration finishing until the server sent the login (join game) packet
+     */
+    JOIN_GAME,
+    /**
+     * Time between keep alives sent by the server, grows when the server falls behind
+     */
+    KEEP_ALIVE_INTERVAL,
+    /**
+     * Round trip of a ping request answered by the server
+     */
+    PING
+
+}
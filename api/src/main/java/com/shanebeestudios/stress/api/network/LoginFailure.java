@@ -0,0 +1,25 @@
+package com.shanebeestudios.stress.api.network;
+
+/**
+ * Reasons a bot failed to join the server
+ */
+public enum LoginFailure {
+
+    /**
+     * The server refused the connection because of its connection throttle
+     */
+    THROTTLED,
+    /**
+     * The connection or a login phase took too long
+     */
+    TIMED_OUT,
+    /**
+     * The server disconnected the bot during login, ie: whitelist or full server
+     */
+    KICKED,
+    /**
+     * The connection could not be opened, ie: nothing listening on the port
+     */
+    REFUSED
+
+}
@@ -0,0 +1,212 @@
+package com.shanebeestudios.stress.api.network;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.timer.BotScheduler;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.TimeoutException;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control of bot logins
+ * <p>Limits how many bots are logging in at the same time, bots over the limit wait in a queue
+ * until a bot joined the game or failed. Counts joins and failures by {@link LoginFailure reason},
+ * which shows the real login throughput of the server.</p>
+ * <p>A bot which did not join in time is disconnected and counted as {@link LoginFailure#TIMED_OUT},
+ * so a hung login never holds on to its place.</p>
+ */
+@SuppressWarnings("unused")
+public class LoginPipeline {
+
+    // Same as the login timeout of vanilla servers
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Queue<Bot> queue = new ConcurrentLinkedQueue<>();
+    // Bots logging in, mapped to the time they started
+    private final Map<Bot, Long> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger permits;
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder[] failures = new LongAdder[LoginFailure.values().length];
+    private volatile int maxInFlight;
+
+    /**
+     * Create a login pipeline
+     *
+     * @param maxInFlight Max amount of bots logging in at the same time
+     * @param scheduler   Scheduler to check for logins which timed out
+     */
+    public LoginPipeline(int maxInFlight, BotScheduler scheduler) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Max in flight has to be positive");
+        this.maxInFlight = maxInFlight;
+        this.permits = new AtomicInteger(maxInFlight);
+        for (int i = 0; i < this.failures.length; i++) {
+            this.failures[i] = new LongAdder();
+        }
+        scheduler.scheduleAtFixedRate(null, this::expire, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a bot to connect
+     * <p>The bot connects right away if less than the max bots are logging in</p>
+     *
+     * @param bot Bot to connect
+     */
+    public void submit(Bot bot) {
+        this.queue.offer(bot);
+        drain();
+    }
+
+    /**
+     * Mark the login of a bot as done, letting the next bot in
+     *
+     * @param bot     Bot which joined or failed
+     * @param failure Reason the bot failed, null if it joined
+     * @hidden
+     */
+    public void complete(Bot bot, @Nullable LoginFailure failure) {
+        if (this.inFlight.remove(bot) == null) return;
+        if (failure == null) {
+            this.joined.increment();
+        } else {
+            this.failures[failure.ordinal()].increment();
+        }
+        this.permits.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * Let the next bot in without counting the login of a bot, ie: when it was disconnected by hand
+     *
+     * @param bot Bot to release
+     * @hidden
+     */
+    public void release(Bot bot) {
+        if (this.inFlight.remove(bot) == null) return;
+        this.permits.incrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!this.queue.isEmpty()) {
+            int permits = this.permits.get();
+            if (permits <= 0) return;
+            if (!this.permits.compareAndSet(permits, permits - 1)) continue;
+            Bot bot = this.queue.poll();
+            // Removed while waiting, or another thread took the last bot
+            if (bot == null || bot.getId() < 0) {
+                // Give the permit back and check again, a bot may have been queued meanwhile
+                this.permits.incrementAndGet();
+                continue;
+            }
+            this.inFlight.put(bot, System.nanoTime());
+            bot.connect();
+        }
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        for (Map.Entry<Bot, Long> entry : this.inFlight.entrySet()) {
+            if (now - entry.getValue() < TIMEOUT_NANOS) continue;
+            Bot bot = entry.getKey();
+            // The bot may have joined meanwhile
+            if (!this.inFlight.remove(bot, entry.getValue())) continue;
+            this.failures[LoginFailure.TIMED_OUT.ordinal()].increment();
+            this.permits.incrementAndGet();
+            // Disconnecting by hand, so the disconnect does not count the bot again
+            bot.disconnect();
+        }
+        drain();
+    }
+
+    /**
+     * Set the max amount of bots logging in at the same time
+     *
+     * @param maxInFlight Max amount of bots
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Max in flight has to be positive");
+        int change = maxInFlight - this.maxInFlight;
+        this.maxInFlight = maxInFlight;
+        this.permits.addAndGet(change);
+        drain();
+    }
+
+    /**
+     * Get the max amount of bots logging in at the same time
+     *
+     * @return Max amount of bots
+     */
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    /**
+     * Get the amount of bots logging in right now
+     *
+     * @return Bots logging in
+     */
+    public int getInFlight() {
+        return this.inFlight.size();
+    }
+
+    /**
+     * Get the amount of bots waiting to log in
+     *
+     * @return Queued bots
+     */
+    public int getQueued() {
+        return this.queue.size();
+    }
+
+    /**
+     * Get the amount of bots which joined the game
+     *
+     * @return Joined bots
+     */
+    public long getJoined() {
+        return this.joined.sum();
+    }
+
+    /**
+     * Get the amount of bots which failed to join for a reason
+     *
+     * @param failure Reason of failure
+     * @return Failed bots
+     */
+    public long getFailures(LoginFailure failure) {
+        return this.failures[failure.ordinal()].sum();
+    }
+
+    /**
+     * Classify why a bot was disconnected during login
+     *
+     * @param reason       Reason sent by the server or the client
+     * @param cause        Exception which caused the disconnect
+     * @param tcpConnected Whether the TCP connection was open
+     * @return Reason of failure
+     */
+    public static LoginFailure classify(Component reason, @Nullable Throwable cause, boolean tcpConnected) {
+        String text = PlainTextComponentSerializer.plainText().serialize(reason).toLowerCase(Locale.ROOT);
+        // Paper: "Connection throttled! Please wait before reconnecting."
+        if (text.contains("throttle")) return LoginFailure.THROTTLED;
+        if (cause instanceof ConnectTimeoutException || cause instanceof SocketTimeoutException
+            || cause instanceof TimeoutException || text.contains("timed out")) {
+            return LoginFailure.TIMED_OUT;
+        }
+        if (!tcpConnected || cause instanceof ConnectException) return LoginFailure.REFUSED;
+        return LoginFailure.KICKED;
+    }
+
+}
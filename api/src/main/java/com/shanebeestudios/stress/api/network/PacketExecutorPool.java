@@ -0,0 +1,126 @@
+package com.shanebeestudios.stress.api.network;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared pool of packet handler threads for all bot sessions
+ * <p>Each session is bound to a single lane, so packets of one bot are still handled in order,
+ * while all bots share a fixed number of threads.</p>
+ */
+@SuppressWarnings("unused")
+public class PacketExecutorPool {
+
+    private final Lane[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    /**
+     * Create a new packet executor pool
+     *
+     * @param threads Amount of threads (0 or less = amount of available processors)
+     */
+    public PacketExecutorPool(int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[size];
+        for (int i = 0; i < size; i++) {
+            this.lanes[i] = new Lane(i);
+        }
+    }
+
+    /**
+     * Get the executor for the next session
+     * <p>Lanes are handed out round-robin</p>
+     *
+     * @return Executor to handle packets of a session
+     */
+    public Executor nextExecutor() {
+        return this.lanes[Math.floorMod(this.nextLane.getAndIncrement(), this.lanes.length)];
+    }
+
+    /**
+     * Get the amount of threads in this pool
+     *
+     * @return Amount of threads
+     */
+    public int getThreadCount() {
+        return this.lanes.length;
+    }
+
+    /**
+     * Get the utilisation of each thread since the last time this was called
+     * <p>0 = idle, 1 = fully saturated</p>
+     *
+     * @return Utilisation per thread
+     */
+    public double[] getUtilisation() {
+        double[] utilisation = new double[this.lanes.length];
+        for (int i = 0; i < this.lanes.length; i++) {
+            utilisation[i] = this.lanes[i].sampleUtilisation();
+        }
+        return utilisation;
+    }
+
+    /**
+     * Get the amount of pending tasks for each thread
+     *
+     * @return Pending tasks per thread
+     */
+    public int[] getQueueSizes() {
+        int[] sizes = new int[this.lanes.length];
+        for (int i = 0; i < this.lanes.length; i++) {
+            sizes[i] = this.lanes[i].getQueue().size();
+        }
+        return sizes;
+    }
+
+    /**
+     * Shutdown all threads of this pool
+     */
+    public void shutdown() {
+        for (Lane lane : this.lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    private static class Lane extends ThreadPoolExecutor {
+
+        private final AtomicLong busyNanos = new AtomicLong();
+        private long taskStart;
+        private long lastBusy;
+        private long lastSample = System.nanoTime();
+
+        private Lane(int id) {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "StressTestBots-Packet-" + id);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            this.taskStart = System.nanoTime();
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+            this.busyNanos.addAndGet(System.nanoTime() - this.taskStart);
+        }
+
+        private synchronized double sampleUtilisation() {
+            long now = System.nanoTime();
+            long busy = this.busyNanos.get();
+            long elapsed = now - this.lastSample;
+            double utilisation = elapsed > 0 ? (double) (busy - this.lastBusy) / elapsed : 0;
+            this.lastBusy = busy;
+            this.lastSample = now;
+            return Math.min(1, utilisation);
+        }
+
+    }
+
+}
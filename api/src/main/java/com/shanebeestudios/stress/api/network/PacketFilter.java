@@ -0,0 +1,215 @@
+package com.shanebeestudios.stress.api.network;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.network.packet.PacketRegistry;
+import org.geysermc.mcprotocollib.protocol.MinecraftProtocol;
+import org.geysermc.mcprotocollib.protocol.data.ProtocolState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Skips decoding of clientbound game packets bots don't need
+ * <p>A handler in front of the packet codec reads only the packet ID, packets to skip are released
+ * before they are decoded into objects. Bytes of all game packets are counted per packet ID.</p>
+ * <p>Packets handled by the {@code PacketListener} (ie: chunks when bots have gravity) or by MCProtocolLib itself
+ * (ie: keep-alive, ping, start configuration) can't be skipped, see {@link com.shanebeestudios.stress.api.bot.BotManager#setPacketFilter(PacketFilter)}.</p>
+ */
+@SuppressWarnings("unused")
+public class PacketFilter {
+
+    private static final String HANDLER_NAME = "stress-packet-filter";
+    private static final int MAX_ID = 256;
+
+    private final Set<Class<? extends Packet>> skipped;
+    private final AtomicLongArray bytes = new AtomicLongArray(MAX_ID);
+    private final AtomicLongArray counts = new AtomicLongArray(MAX_ID);
+    private final LongAdder skippedBytes = new LongAdder();
+    private final LongAdder skippedPackets = new LongAdder();
+    // Resolved from the game registry of the first bot
+    private volatile boolean[] skipIds;
+
+    /**
+     * Create a packet filter
+     *
+     * @param skipped Clientbound game packets to skip
+     */
+    public PacketFilter(Collection<Class<? extends Packet>> skipped) {
+        this.skipped = Set.copyOf(skipped);
+    }
+
+    /**
+     * Install this filter on the session of a bot
+     * <p>Has to be called once the bot is in game state, ie: when it receives the login packet</p>
+     *
+     * @param bot Bot to install filter for
+     */
+    public void install(Bot bot) {
+        Channel channel = bot.getChannel();
+        if (channel == null || channel.pipeline().get(HANDLER_NAME) != null) return;
+        MinecraftProtocol protocol = bot.getProtocol();
+        if (this.skipIds == null) resolve(protocol.getInboundPacketRegistry());
+        channel.pipeline().addBefore("codec", HANDLER_NAME, new Handler(protocol));
+    }
+
+    /**
+     * Get the packets this filter skips
+     *
+     * @return Skipped packet classes
+     */
+    public Set<Class<? extends Packet>> getSkipped() {
+        return this.skipped;
+    }
+
+    /**
+     * Check if this filter skips a packet
+     *
+     * @param packetClass Class of packet to check
+     * @return True if skipped
+     */
+    public boolean skips(Class<? extends Packet> packetClass) {
+        return this.skipped.contains(packetClass);
+    }
+
+    /**
+     * Get the bytes received of a packet ID in game state
+     *
+     * @param id ID of packet
+     * @return Bytes received, excluding length prefix
+     */
+    public long getBytes(int id) {
+        return id >= 0 && id < MAX_ID ? this.bytes.get(id) : 0;
+    }
+
+    /**
+     * Get the amount of packets received of a packet ID in game state
+     *
+     * @param id ID of packet
+     * @return Packets received
+     */
+    public long getCount(int id) {
+        return id >= 0 && id < MAX_ID ? this.counts.get(id) : 0;
+    }
+
+    /**
+     * Get the bytes received of all game packets
+     *
+     * @return Total bytes received
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (int i = 0; i < MAX_ID; i++) {
+            total += this.bytes.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Get the bytes of packets which were skipped
+     *
+     * @return Skipped bytes
+     */
+    public long getSkippedBytes() {
+        return this.skippedBytes.sum();
+    }
+
+    /**
+     * Get the amount of packets which were skipped
+     *
+     * @return Skipped packets
+     */
+    public long getSkippedPackets() {
+        return this.skippedPackets.sum();
+    }
+
+    private synchronized void resolve(PacketRegistry registry) {
+        if (this.skipIds != null) return;
+        boolean[] skipIds = new boolean[MAX_ID];
+        for (Class<? extends Packet> packetClass : this.skipped) {
+            int id = registry.getClientboundId(packetClass);
+            if (id >= 0 && id < MAX_ID) skipIds[id] = true;
+        }
+        this.skipIds = skipIds;
+    }
+
+    // Read the packet ID without moving the reader index
+    private static int peekVarInt(ByteBuf buf) {
+        int index = buf.readerIndex();
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            if (index + i >= buf.writerIndex()) return -1;
+            byte b = buf.getByte(index + i);
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) return value;
+        }
+        return -1;
+    }
+
+    private class Handler extends ChannelInboundHandlerAdapter {
+
+        private final MinecraftProtocol protocol;
+
+        private Handler(MinecraftProtocol protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            // IDs differ per state, only filter game packets
+            if (!(msg instanceof ByteBuf buf) || this.protocol.getInboundState() != ProtocolState.GAME) {
+                ctx.fireChannelRead(msg);
+                return;
+            }
+            int id = peekVarInt(buf);
+            int size = buf.readableBytes();
+            if (id >= 0 && id < MAX_ID) {
+                PacketFilter.this.bytes.addAndGet(id, size);
+                PacketFilter.this.counts.incrementAndGet(id);
+                if (PacketFilter.this.skipIds[id]) {
+                    PacketFilter.this.skippedBytes.add(size);
+                    PacketFilter.this.skippedPackets.increment();
+                    buf.release();
+                    return;
+                }
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+    }
+
+    /**
+     * Create a filter from packet class names
+     * <p>Names are relative to the ingame clientbound package, ie: {@code level.ClientboundLightUpdatePacket}</p>
+     *
+     * @param names Names of packet classes
+     * @return Filter for packets, null if there are no names
+     * @throws IllegalArgumentException If a name is not a packet class
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static PacketFilter fromNames(Collection<String> names) {
+        if (names.isEmpty()) return null;
+        Set<Class<? extends Packet>> classes = new HashSet<>();
+        for (String name : names) {
+            String className = "org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound." + name;
+            try {
+                Class<?> packetClass = Class.forName(className);
+                if (!Packet.class.isAssignableFrom(packetClass)) throw new IllegalArgumentException(name + " is not a packet");
+                classes.add((Class<? extends Packet>) packetClass);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Unknown packet " + name, e);
+            }
+        }
+        return new PacketFilter(classes);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.shanebeestudios.stress.api.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects packets for many channels and writes them with one task per event loop
+ * <p>Each event loop writes all its packets and flushes every channel once,
+ * instead of one task and one flush (syscall) per packet.</p>
+ * <p>Each event loop has a lane with two buffers which are cleared and reused, so a flush allocates nothing.
+ * A lane still being written by its event loop keeps its messages until the next flush.</p>
+ * <p>NOTE: Messages are written to the channel directly, bypassing {@link org.geysermc.mcprotocollib.network.Session#send Session#send}.
+ * Session listeners are not called for them, ie: packet sending/sent events.</p>
+ * <p>Not thread safe, a batch is filled and flushed by one thread.</p>
+ */
+@SuppressWarnings("unused")
+public class WriteBatch {
+
+    // Event loops are fixed, so lanes are never removed
+    private final Map<EventLoop, Lane> lanes = new IdentityHashMap<>();
+    // Lanes with messages waiting to be written
+    private final List<Lane> pending = new ArrayList<>();
+    private int size;
+
+    /**
+     * Add a message to write to a channel
+     *
+     * @param channel Channel to write to
+     * @param message Message to write
+     */
+    public void add(Channel channel, Object message) {
+        EventLoop loop = channel.eventLoop();
+        Lane lane = this.lanes.get(loop);
+        if (lane == null) {
+            lane = new Lane(loop);
+            this.lanes.put(loop, lane);
+        }
+        if (lane.filling.isEmpty()) this.pending.add(lane);
+        // Channel and message alternate in the list of the lane
+        lane.filling.add(channel);
+        lane.filling.add(message);
+        this.size++;
+    }
+
+    /**
+     * Get the amount of messages in this batch
+     *
+     * @return Amount of messages
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Write and flush all messages, and start a new batch
+     */
+    public void flush() {
+        if (this.size == 0) return;
+        List<Lane> pending = this.pending;
+        int kept = 0;
+        int size = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            Lane lane = pending.get(i);
+            if (!lane.flush()) {
+                // Event loop is behind, try again with the next flush
+                pending.set(kept++, lane);
+                size += lane.filling.size() / 2;
+            }
+        }
+        pending.subList(kept, pending.size()).clear();
+        this.size = size;
+    }
+
+    private static class Lane implements Runnable {
+
+        private final EventLoop loop;
+        // Filled by the batch thread
+        private List<Object> filling = new ArrayList<>();
+        // Written by the event loop, cleared once done
+        private List<Object> writing = new ArrayList<>();
+        private volatile boolean busy;
+
+        private Lane(EventLoop loop) {
+            this.loop = loop;
+        }
+
+        private boolean flush() {
+            if (this.busy) return false;
+            List<Object> list = this.writing;
+            this.writing = this.filling;
+            this.filling = list;
+            this.busy = true;
+            this.loop.execute(this);
+            return true;
+        }
+
+        @Override
+        public void run() {
+            List<Object> list = this.writing;
+            for (int i = 0; i < list.size(); i += 2) {
+                Channel channel = (Channel) list.get(i);
+                if (channel.isActive()) {
+                    channel.write(list.get(i + 1), channel.voidPromise());
+                } else {
+                    ReferenceCountUtil.release(list.get(i + 1));
+                }
+            }
+            for (int i = 0; i < list.size(); i += 2) {
+                // Flushing a channel without pending writes is a no-op
+                ((Channel) list.get(i)).flush();
+            }
+            list.clear();
+            this.busy = false;
+        }
+
+    }
+
+}
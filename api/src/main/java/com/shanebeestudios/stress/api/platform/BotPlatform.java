@@ -0,0 +1,39 @@
+package com.shanebeestudios.stress.api.platform;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Platform the bots are running on
+ * <p>Keeps server only features (online player checks, events) out of the core bot code,
+ * so bots can run without a server in their own JVM.</p>
+ */
+public interface BotPlatform {
+
+    /**
+     * Check if a player with a name is already online
+     * <p>If the answer is known right away the returned future is already completed</p>
+     *
+     * @param name Name of player
+     * @return Future completed with true if the player is online
+     */
+    CompletableFuture<Boolean> isPlayerOnline(String name);
+
+    /**
+     * Called when a new bot was created
+     * <p>Only called once {@link #isPlayerOnline(String)} confirmed no player with the name of the bot is online,
+     * bots removed by that check are never reported</p>
+     *
+     * @param bot Bot which was created
+     */
+    void botCreated(Bot bot);
+
+    /**
+     * Called when a bot was disconnected
+     *
+     * @param bot Bot which was disconnected
+     */
+    void botDisconnected(Bot bot);
+
+}
@@ -0,0 +1,28 @@
+package com.shanebeestudios.stress.api.platform;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Platform for bots running without a server
+ * <p>Player checks always pass and no events are called</p>
+ */
+public class HeadlessPlatform implements BotPlatform {
+
+    private static final CompletableFuture<Boolean> OFFLINE = CompletableFuture.completedFuture(false);
+
+    @Override
+    public CompletableFuture<Boolean> isPlayerOnline(String name) {
+        return OFFLINE;
+    }
+
+    @Override
+    public void botCreated(Bot bot) {
+    }
+
+    @Override
+    public void botDisconnected(Bot bot) {
+    }
+
+}
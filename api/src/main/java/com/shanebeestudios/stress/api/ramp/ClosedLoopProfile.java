@@ -0,0 +1,52 @@
+package com.shanebeestudios.stress.api.ramp;
+
+/**
+ * Profile which holds the server at a target MSPT
+ * <p>Bots are added with a growing step while the server is under target,
+ * once it goes over a tenth of the bots are removed and the step starts small again (AIMD).</p>
+ * <p>Runs until stopped.</p>
+ */
+public class ClosedLoopProfile implements RampProfile {
+
+    private static final int MIN_STEP = 1;
+    private static final int MAX_STEP = 50;
+
+    private final double targetMspt;
+    private final int maxBots;
+    private int step = MIN_STEP;
+    private int target = -1;
+
+    /**
+     * Create a closed loop profile
+     *
+     * @param targetMspt MSPT to hold
+     * @param maxBots    Max amount of bots to add
+     */
+    public ClosedLoopProfile(double targetMspt, int maxBots) {
+        this.targetMspt = targetMspt;
+        this.maxBots = maxBots;
+    }
+
+    @Override
+    public int getTarget(long elapsed, double mspt, int currentBots) {
+        if (this.target < 0) this.target = currentBots;
+        if (mspt > this.targetMspt) {
+            this.target = (int) (Math.min(this.target, currentBots) * 0.9);
+            this.step = MIN_STEP;
+        } else if (mspt < this.targetMspt * 0.9 && currentBots >= this.target) {
+            // Only add more once the last step has connected
+            this.target = Math.min(this.maxBots, this.target + this.step);
+            this.step = Math.min(MAX_STEP, this.step * 2);
+        } else if (mspt >= this.targetMspt * 0.9) {
+            // Close to the target, creep up slowly
+            this.step = MIN_STEP;
+        }
+        return this.target;
+    }
+
+    @Override
+    public double getMaxMspt() {
+        return this.targetMspt;
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.shanebeestudios.stress.api.ramp;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.timer.BotTask;
+import com.shanebeestudios.stress.api.util.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Adds and removes bots once a second to follow a {@link RampProfile}
+ * <p>Keeps track of the highest bot count the server held under the max MSPT of the profile
+ * for a few seconds, which is the max sustainable player count.</p>
+ */
+@SuppressWarnings("unused")
+public class RampController {
+
+    // Seconds the server has to stay under max MSPT before a bot count counts as sustainable
+    private static final int STABLE_SECONDS = 5;
+
+    private final BotManager botManager;
+    private final RampProfile profile;
+    private final DoubleSupplier mspt;
+    private final int joinsPerSecond;
+    private BotTask task;
+    private long startTime;
+    private volatile int target;
+    private volatile double lastMspt;
+    private volatile int maxSustainable;
+    private int stableSeconds;
+    private int stableBots = Integer.MAX_VALUE;
+
+    /**
+     * Create a ramp controller
+     *
+     * @param botManager     Bot manager to create bots with
+     * @param profile        Profile to follow
+     * @param mspt           Source of the current average MSPT of the server
+     * @param joinsPerSecond Max amount of bots to create per second
+     */
+    public RampController(BotManager botManager, RampProfile profile, DoubleSupplier mspt, int joinsPerSecond) {
+        this.botManager = botManager;
+        this.profile = profile;
+        this.mspt = mspt;
+        this.joinsPerSecond = joinsPerSecond;
+    }
+
+    /**
+     * Start following the profile
+     */
+    public void start() {
+        if (this.task != null) return;
+        this.startTime = System.currentTimeMillis();
+        this.task = this.botManager.getScheduler().scheduleAtFixedRate(null, this::tick, 0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop following the profile
+     * <p>Bots which were created stay connected</p>
+     */
+    public void stop() {
+        if (this.task == null) return;
+        this.task.cancel();
+        this.task = null;
+        Logger.info("Ramp finished, max sustainable bots: &b%s", this.maxSustainable);
+    }
+
+    /**
+     * Check if the ramp is still running
+     *
+     * @return True if running
+     */
+    public boolean isRunning() {
+        return this.task != null;
+    }
+
+    /**
+     * Get the current target amount of bots
+     *
+     * @return Target amount of bots
+     */
+    public int getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Get the MSPT measured in the last step
+     *
+     * @return Last MSPT
+     */
+    public double getLastMspt() {
+        return this.lastMspt;
+    }
+
+    /**
+     * Get the highest bot count the server held under max MSPT
+     *
+     * @return Max sustainable bots
+     */
+    public int getMaxSustainable() {
+        return this.maxSustainable;
+    }
+
+    private void tick() {
+        double mspt = this.mspt.getAsDouble();
+        this.lastMspt = mspt;
+        int current = this.botManager.getRegistry().size();
+        updateSustainable(mspt, countConnected());
+
+        int target = this.profile.getTarget(System.currentTimeMillis() - this.startTime, mspt, current);
+        if (target < 0) {
+            stop();
+            return;
+        }
+        this.target = target;
+        if (target > current) {
+            int amount = Math.min(target - current, this.joinsPerSecond);
+            for (int i = 0; i < amount; i++) {
+                // Spread joins over the second
+                this.botManager.createBot(null, i * 20L / amount);
+            }
+        } else if (target < current) {
+            Bot[] bots = this.botManager.getRegistry().snapshot();
+            // Remove the bots with the highest IDs first
+            for (int i = bots.length - 1; i >= 0 && current > target; i--, current--) {
+                this.botManager.disconnectBot(bots[i]);
+            }
+        }
+    }
+
+    private void updateSustainable(double mspt, int connected) {
+        if (mspt > this.profile.getMaxMspt()) {
+            this.stableSeconds = 0;
+            this.stableBots = Integer.MAX_VALUE;
+            return;
+        }
+        this.stableSeconds++;
+        this.stableBots = Math.min(this.stableBots, connected);
+        if (this.stableSeconds >= STABLE_SECONDS) {
+            this.maxSustainable = Math.max(this.maxSustainable, this.stableBots);
+            this.stableSeconds = 0;
+            this.stableBots = Integer.MAX_VALUE;
+        }
+    }
+
+    private int countConnected() {
+        int connected = 0;
+        for (Bot bot : this.botManager.getRegistry().snapshot()) {
+            if (bot.isConnected()) connected++;
+        }
+        return connected;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.shanebeestudios.stress.api.ramp;
+
+/**
+ * Profile deciding how many bots should be connected over the course of a ramp
+ */
+public interface RampProfile {
+
+    /**
+     * Get the amount of bots that should be connected
+     *
+     * @param elapsed     Milliseconds since the ramp started
+     * @param mspt        Current average MSPT of the server
+     * @param currentBots Amount of bots currently loaded
+     * @return Target amount of bots, -1 once the ramp is finished
+     */
+    int getTarget(long elapsed, double mspt, int currentBots);
+
+    /**
+     * Get the MSPT this profile tries to stay under
+     * <p>Used to work out the max sustainable bot count</p>
+     *
+     * @return Max MSPT
+     */
+    default double getMaxMspt() {
+        return 50;
+    }
+
+    /**
+     * Linearly ramp from one amount of bots to another
+     *
+     * @param from    Amount of bots at the start
+     * @param to      Amount of bots at the end
+     * @param seconds Duration of ramp
+     * @return Linear profile
+     */
+    static RampProfile linear(int from, int to, int seconds) {
+        long duration = seconds * 1000L;
+        return (elapsed, mspt, currentBots) -> {
+            if (elapsed > duration) return -1;
+            return (int) (from + (to - from) * (elapsed / (double) duration));
+        };
+    }
+
+    /**
+     * Add a fixed amount of bots at a fixed interval
+     *
+     * @param step        Amount of bots to add each step
+     * @param stepSeconds Seconds between steps
+     * @param max         Max amount of bots, the ramp finishes one step after reaching it
+     * @return Step profile
+     */
+    static RampProfile step(int step, int stepSeconds, int max) {
+        long stepDuration = stepSeconds * 1000L;
+        return (elapsed, mspt, currentBots) -> {
+            long steps = elapsed / stepDuration + 1;
+            if ((steps - 1) * step >= max) return -1;
+            return (int) Math.min(max, steps * step);
+        };
+    }
+
+    /**
+     * Hold a base amount of bots with a short spike in the middle
+     *
+     * @param base         Base amount of bots
+     * @param spike        Amount of bots added during the spike
+     * @param spikeSeconds Duration of the spike
+     * @param seconds      Total duration, the spike starts halfway
+     * @return Spike profile
+     */
+    static RampProfile spike(int base, int spike, int spikeSeconds, int seconds) {
+        long duration = seconds * 1000L;
+        long spikeStart = (duration - spikeSeconds * 1000L) / 2;
+        long spikeEnd = spikeStart + spikeSeconds * 1000L;
+        return (elapsed, mspt, currentBots) -> {
+            if (elapsed > duration) return -1;
+            return elapsed >= spikeStart && elapsed < spikeEnd ? base + spike : base;
+        };
+    }
+
+    /**
+     * Hold a fixed amount of bots for a while
+     *
+     * @param bots    Amount of bots
+     * @param seconds Duration to hold
+     * @return Soak profile
+     */
+    static RampProfile soak(int bots, int seconds) {
+        long duration = seconds * 1000L;
+        return (elapsed, mspt, currentBots) -> elapsed > duration ? -1 : bots;
+    }
+
+    /**
+     * Keep adding or removing bots to hold the server at a target MSPT
+     *
+     * @param targetMspt MSPT to hold
+     * @param maxBots    Max amount of bots to add
+     * @return Closed loop profile
+     */
+    static RampProfile closedLoop(double targetMspt, int maxBots) {
+        return new ClosedLoopProfile(targetMspt, maxBots);
+    }
+
+}
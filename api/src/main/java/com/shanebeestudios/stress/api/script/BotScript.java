@@ -0,0 +1,20 @@
+package com.shanebeestudios.stress.api.script;
+
+/**
+ * Sequential script of a bot
+ * <p>Each script runs on its own virtual thread, so it can simply block while waiting,
+ * ie: {@code ctx.login(); ctx.walk(10); ctx.chat("hi"); ctx.sleep(1000);}</p>
+ */
+@FunctionalInterface
+public interface BotScript {
+
+    /**
+     * Run this script
+     * <p>The bot is disconnected once the script returns</p>
+     *
+     * @param context Context to control the bot with
+     * @throws Exception If the script failed
+     */
+    void run(ScriptContext context) throws Exception;
+
+}
@@ -0,0 +1,28 @@
+package com.shanebeestudios.stress.api.script;
+
+/**
+ * Thrown in a {@link BotScript} when the bot can not continue,
+ * ie: it disconnected or a packet did not arrive in time
+ */
+public class ScriptAbortedException extends RuntimeException {
+
+    /**
+     * Create a new exception
+     *
+     * @param message Reason the script was aborted
+     */
+    public ScriptAbortedException(String message) {
+        super(message);
+    }
+
+    /**
+     * Create a new exception
+     *
+     * @param message Reason the script was aborted
+     * @param cause   Cause of abort
+     */
+    public ScriptAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.shanebeestudios.stress.api.script;
+
+import com.shanebeestudios.stress.api.behaviour.BotBehaviour;
+import com.shanebeestudios.stress.api.bot.Bot;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.ClientboundLoginPacket;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Blocking controls of a bot for a {@link BotScript}
+ * <p>Methods block the script thread until done, and throw a {@link ScriptAbortedException}
+ * once the bot disconnected.</p>
+ */
+@SuppressWarnings("unused")
+public class ScriptContext {
+
+    /**
+     * Default time to wait for packets in milliseconds
+     */
+    public static final long DEFAULT_TIMEOUT = 30000;
+    // How often a walk checks if the bot is still connected
+    private static final long WALK_CHECK = 1000;
+
+    private final Bot bot;
+
+    /**
+     * @param bot Bot this context controls
+     * @hidden
+     */
+    public ScriptContext(Bot bot) {
+        this.bot = bot;
+    }
+
+    /**
+     * Get the bot this script controls
+     *
+     * @return Bot of script
+     */
+    public Bot getBot() {
+        return this.bot;
+    }
+
+    /**
+     * Connect the bot and wait until it is in the world
+     *
+     * @throws ScriptAbortedException If the bot did not log in within {@link #DEFAULT_TIMEOUT}
+     */
+    public void login() {
+        if (this.bot.isConnected()) return;
+        // Wait before connecting, the packet can't be missed
+        CompletableFuture<ClientboundLoginPacket> login = this.bot.awaitPacket(ClientboundLoginPacket.class, packet -> true);
+        this.bot.getBotManager().getLoginPipeline().submit(this.bot);
+        await(login, DEFAULT_TIMEOUT, "login");
+        // The bot is marked connected shortly after the login packet
+        long deadline = System.currentTimeMillis() + DEFAULT_TIMEOUT;
+        while (!this.bot.isConnected()) {
+            if (System.currentTimeMillis() > deadline) throw new ScriptAbortedException("Timed out waiting for login");
+            sleep(10);
+        }
+    }
+
+    /**
+     * Walk forward in the direction the bot is looking
+     *
+     * @param blocks Amount of blocks to walk
+     */
+    public void walk(double blocks) {
+        double yaw = Math.toRadians(this.bot.getYaw());
+        walkTo(this.bot.getX() - Math.sin(yaw) * blocks, this.bot.getZ() + Math.cos(yaw) * blocks);
+    }
+
+    /**
+     * Walk to a location, following the ground
+     * <p>Returns early if the way is blocked</p>
+     *
+     * @param x X coord to walk to
+     * @param z Z coord to walk to
+     */
+    public void walkTo(double x, double z) {
+        walkTo(x, z, Bot.WALK_SPEED);
+    }
+
+    /**
+     * Walk to a location, following the ground
+     * <p>Returns early if the way is blocked</p>
+     *
+     * @param x     X coord to walk to
+     * @param z     Z coord to walk to
+     * @param speed Blocks per tick to walk
+     */
+    public void walkTo(double x, double z, double speed) {
+        checkConnected();
+        CompletableFuture<Void> arrived = new CompletableFuture<>();
+        BotBehaviour behaviour = bot -> {
+            if (bot.walkTowards(x, z, speed)) return true;
+            arrived.complete(null);
+            return false;
+        };
+        this.bot.setBehaviour(behaviour);
+        while (true) {
+            try {
+                arrived.get(WALK_CHECK, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                checkConnected();
+                if (this.bot.getBehaviour() != behaviour) throw new ScriptAbortedException("Walk was replaced by another behaviour");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ScriptAbortedException("Script was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new ScriptAbortedException("Walk failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Send a chat message (or command if starting with '/')
+     *
+     * @param message Message to send
+     */
+    public void chat(String message) {
+        checkConnected();
+        this.bot.sendChat(message);
+    }
+
+    /**
+     * Wait for the next packet of a type
+     *
+     * @param type Class of packet to wait for
+     * @param <T>  Type of packet
+     * @return Packet that was received
+     */
+    public <T extends Packet> T awaitPacket(Class<T> type) {
+        return awaitPacket(type, packet -> true, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for the next packet of a type that passes a filter
+     *
+     * @param type      Class of packet to wait for
+     * @param filter    Filter the packet has to pass, called on the packet thread
+     * @param timeoutMs Max time to wait in milliseconds
+     * @param <T>       Type of packet
+     * @return Packet that was received
+     * @throws ScriptAbortedException If no packet arrived in time
+     */
+    public <T extends Packet> T awaitPacket(Class<T> type, Predicate<? super T> filter, long timeoutMs) {
+        checkConnected();
+        return await(this.bot.awaitPacket(type, filter), timeoutMs, type.getSimpleName());
+    }
+
+    /**
+     * Pause this script
+     *
+     * @param millis Time to sleep in milliseconds
+     */
+    public void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptAbortedException("Script was interrupted", e);
+        }
+    }
+
+    /**
+     * Disconnect the bot
+     */
+    public void disconnect() {
+        this.bot.getBotManager().disconnectBot(this.bot);
+    }
+
+    private void checkConnected() {
+        if (!this.bot.isConnected()) throw new ScriptAbortedException("Bot '" + this.bot.getNickname() + "' is not connected");
+    }
+
+    private <T> T await(CompletableFuture<T> future, long timeoutMs, String what) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new ScriptAbortedException("Timed out waiting for " + what);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ScriptAbortedException("Script was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ScriptAbortedException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+}
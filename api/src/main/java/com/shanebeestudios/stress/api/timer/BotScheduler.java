@@ -0,0 +1,297 @@
+package com.shanebeestudios.stress.api.timer;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.util.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single threaded hashed wheel scheduler shared by all bots
+ * <p>Inserting and cancelling a task are O(1), tasks bound to a bot can all be
+ * cancelled at once when the bot disconnects.</p>
+ * <p>Tasks are run on the scheduler thread, so they should be short.
+ * The client tick of all bots runs on its own thread, see {@link GravityTimer}.</p>
+ */
+@SuppressWarnings("unused")
+public class BotScheduler {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+    private final Queue<BotTask> newTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<BotTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final Map<Bot, Set<BotTask>> botTasks = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private final long startNanos;
+    private long tick;
+
+    // Drift stats, written by the scheduler thread only
+    private volatile long lastDriftNanos;
+    private volatile long maxDriftNanos;
+    private volatile double averageDriftNanos;
+
+    /**
+     * Create and start a new scheduler
+     */
+    public BotScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::run, "StressTestBots-Scheduler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Schedule a task to run once after a delay
+     *
+     * @param bot   Bot the task belongs to, will be cancelled with {@link #cancelTasks(Bot)}
+     * @param task  Task to run
+     * @param delay Delay before running
+     * @param unit  Unit of delay
+     * @return Handle of scheduled task
+     */
+    public BotTask schedule(@Nullable Bot bot, Runnable task, long delay, TimeUnit unit) {
+        return schedule(bot, task, delay, 0, unit);
+    }
+
+    /**
+     * Schedule a task to repeat at a fixed rate
+     *
+     * @param bot          Bot the task belongs to, will be cancelled with {@link #cancelTasks(Bot)}
+     * @param task         Task to run
+     * @param initialDelay Delay before first run
+     * @param period       Period between runs
+     * @param unit         Unit of delay and period
+     * @return Handle of scheduled task
+     */
+    public BotTask scheduleAtFixedRate(@Nullable Bot bot, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be greater than 0");
+        return schedule(bot, task, initialDelay, period, unit);
+    }
+
+    private BotTask schedule(@Nullable Bot bot, Runnable task, long delay, long period, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay));
+        BotTask botTask = new BotTask(this, bot, task, deadline, unit.toNanos(period));
+        if (bot != null) {
+            this.botTasks.compute(bot, (k, tasks) -> {
+                if (tasks == null) tasks = ConcurrentHashMap.newKeySet();
+                tasks.add(botTask);
+                return tasks;
+            });
+            // Refuse tasks of removed bots, they would never be cancelled
+            if (bot.getId() < 0) {
+                botTask.state.set(BotTask.STATE_CANCELLED);
+                removeBotTask(botTask);
+                return botTask;
+            }
+        }
+        this.pendingTasks.incrementAndGet();
+        this.newTasks.add(botTask);
+        return botTask;
+    }
+
+    /**
+     * Cancel all tasks of a bot
+     * <p>Called when a bot is removed, tasks scheduled for a removed bot are cancelled right away</p>
+     *
+     * @param bot Bot to cancel tasks for
+     */
+    public void cancelTasks(Bot bot) {
+        Set<BotTask> tasks = this.botTasks.remove(bot);
+        if (tasks == null) return;
+        tasks.forEach(BotTask::cancel);
+    }
+
+    /**
+     * Get the amount of tasks waiting to run
+     *
+     * @return Amount of waiting tasks
+     */
+    public int getPendingTasks() {
+        return this.pendingTasks.get();
+    }
+
+    /**
+     * Get how late the last tick of the scheduler ran
+     *
+     * @return Drift of last tick in milliseconds
+     */
+    public double getLastDrift() {
+        return this.lastDriftNanos / 1_000_000d;
+    }
+
+    /**
+     * Get the average drift of the scheduler ticks
+     *
+     * @return Average drift in milliseconds
+     */
+    public double getAverageDrift() {
+        return this.averageDriftNanos / 1_000_000d;
+    }
+
+    /**
+     * Get the highest drift of the scheduler ticks
+     *
+     * @return Max drift in milliseconds
+     */
+    public double getMaxDrift() {
+        return this.maxDriftNanos / 1_000_000d;
+    }
+
+    /**
+     * Stop the scheduler, waiting tasks will not run
+     */
+    public void shutdown() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+    }
+
+    void cancelled(BotTask task) {
+        removeBotTask(task);
+        this.cancelledTasks.add(task);
+        this.pendingTasks.decrementAndGet();
+    }
+
+    // Empty sets are removed, so bots are not kept after their last task
+    private void removeBotTask(BotTask task) {
+        Bot bot = task.getBot();
+        if (bot == null) return;
+        this.botTasks.computeIfPresent(bot, (k, tasks) -> {
+            tasks.remove(task);
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+
+    private void run() {
+        while (this.running) {
+            long deadline = this.startNanos + (this.tick + 1) * TICK_NANOS;
+            long now = System.nanoTime();
+            while (now < deadline && this.running) {
+                LockSupport.parkNanos(deadline - now);
+                now = System.nanoTime();
+            }
+            if (!this.running) break;
+            recordDrift(now - deadline);
+
+            removeCancelledTasks();
+            transferNewTasks();
+            expireTasks(this.wheel[(int) (this.tick & WHEEL_MASK)]);
+            this.tick++;
+        }
+    }
+
+    private void recordDrift(long drift) {
+        this.lastDriftNanos = drift;
+        if (drift > this.maxDriftNanos) this.maxDriftNanos = drift;
+        this.averageDriftNanos = this.averageDriftNanos * 0.99 + drift * 0.01;
+    }
+
+    private void removeCancelledTasks() {
+        BotTask task;
+        while ((task = this.cancelledTasks.poll()) != null) {
+            if (task.bucket != null) task.bucket.remove(task);
+        }
+    }
+
+    private void transferNewTasks() {
+        BotTask task;
+        while ((task = this.newTasks.poll()) != null) {
+            if (task.state.get() == BotTask.STATE_WAITING) {
+                addToWheel(task, this.tick);
+            }
+        }
+    }
+
+    private void addToWheel(BotTask task, long minTick) {
+        long calculated = Math.max(0, (task.deadlineNanos - this.startNanos) / TICK_NANOS);
+        // Don't schedule in the past
+        long ticks = Math.max(calculated, minTick);
+        task.remainingRounds = (ticks - this.tick) / WHEEL_SIZE;
+        this.wheel[(int) (ticks & WHEEL_MASK)].add(task);
+    }
+
+    private void expireTasks(Bucket bucket) {
+        // Repeating tasks may be re-added to this bucket while expiring, stop at the current tail
+        BotTask last = bucket.tail;
+        BotTask task = bucket.head;
+        while (task != null) {
+            BotTask next = task.next;
+            if (task.remainingRounds <= 0) {
+                bucket.remove(task);
+                runTask(task);
+            } else {
+                task.remainingRounds--;
+            }
+            if (task == last) break;
+            task = next;
+        }
+    }
+
+    private void runTask(BotTask task) {
+        if (task.state.get() != BotTask.STATE_WAITING) return;
+        if (!task.isRepeating()) {
+            if (!task.state.compareAndSet(BotTask.STATE_WAITING, BotTask.STATE_EXPIRED)) return;
+            this.pendingTasks.decrementAndGet();
+            removeBotTask(task);
+        }
+        try {
+            task.task.run();
+        } catch (Throwable throwable) {
+            Logger.error("Error running bot task:");
+            Logger.error(new RuntimeException(throwable));
+        }
+        if (task.isRepeating() && task.state.get() == BotTask.STATE_WAITING) {
+            task.deadlineNanos += task.periodNanos;
+            addToWheel(task, this.tick + 1);
+        }
+    }
+
+    static class Bucket {
+
+        private BotTask head, tail;
+
+        private void add(BotTask task) {
+            task.bucket = this;
+            task.prev = this.tail;
+            task.next = null;
+            if (this.tail == null) {
+                this.head = task;
+            } else {
+                this.tail.next = task;
+            }
+            this.tail = task;
+        }
+
+        private void remove(BotTask task) {
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                this.head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            } else {
+                this.tail = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.shanebeestudios.stress.api.timer;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a task scheduled by the {@link BotScheduler}
+ */
+@SuppressWarnings("unused")
+public class BotTask {
+
+    static final int STATE_WAITING = 0;
+    static final int STATE_CANCELLED = 1;
+    static final int STATE_EXPIRED = 2;
+
+    private final BotScheduler scheduler;
+    private final Bot bot;
+    final Runnable task;
+    final long periodNanos;
+    final AtomicInteger state = new AtomicInteger(STATE_WAITING);
+    long deadlineNanos;
+    long remainingRounds;
+
+    // Links of the wheel bucket this task is in
+    BotScheduler.Bucket bucket;
+    BotTask prev, next;
+
+    BotTask(BotScheduler scheduler, @Nullable Bot bot, Runnable task, long deadlineNanos, long periodNanos) {
+        this.scheduler = scheduler;
+        this.bot = bot;
+        this.task = task;
+        this.deadlineNanos = deadlineNanos;
+        this.periodNanos = periodNanos;
+    }
+
+    /**
+     * Get the bot this task belongs to
+     *
+     * @return Bot of this task, null if not bound to a bot
+     */
+    @Nullable
+    public Bot getBot() {
+        return this.bot;
+    }
+
+    /**
+     * Check if this task repeats
+     *
+     * @return True if repeating
+     */
+    public boolean isRepeating() {
+        return this.periodNanos > 0;
+    }
+
+    /**
+     * Check if this task was cancelled
+     *
+     * @return True if cancelled
+     */
+    public boolean isCancelled() {
+        return this.state.get() == STATE_CANCELLED;
+    }
+
+    /**
+     * Cancel this task
+     * <p>Cancelling a task which already ran (or was already cancelled) does nothing</p>
+     *
+     * @return True if the task was cancelled by this call
+     */
+    public boolean cancel() {
+        if (!this.state.compareAndSet(STATE_WAITING, STATE_CANCELLED)) return false;
+        this.scheduler.cancelled(this);
+        return true;
+    }
+
+}
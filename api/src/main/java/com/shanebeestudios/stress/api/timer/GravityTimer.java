@@ -0,0 +1,97 @@
+package com.shanebeestudios.stress.api.timer;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotKinematics;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.network.WriteBatch;
+import com.shanebeestudios.stress.api.util.Logger;
+import io.netty.channel.Channel;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftPacket;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Client tick of all bots, runs behaviours and gravity every 50ms
+ * <p>Unlike other bot tasks, the tick does not run on the {@link BotScheduler} but on its own thread.
+ * A tick over thousands of bots takes milliseconds, on the scheduler thread it would delay
+ * keep-alives and other short tasks, which the scheduler runs with a 10ms resolution.</p>
+ *
+ * @hidden
+ */
+public class GravityTimer {
+
+    private final BotManager botManager;
+    private final WriteBatch writeBatch = new WriteBatch();
+    private ScheduledExecutorService executor;
+    private volatile long lastTickNanos;
+
+    public GravityTimer(BotManager botManager) {
+        this.botManager = botManager;
+    }
+
+
+    public void startTimer() {
+        if (this.executor != null) return;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StressTestBots-Tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Throwable throwable) {
+                // An exception would stop the executor from running the next tick
+                Logger.error("Error running client tick:");
+                Logger.error(throwable);
+            }
+        }, 1000L, 50L, TimeUnit.MILLISECONDS);
+    }
+
+    // Package private for benchmarks
+    void tick() {
+        long start = System.nanoTime();
+        Bot[] bots = this.botManager.getRegistry().snapshot();
+        BotKinematics kinematics = this.botManager.getRegistry().getKinematics();
+
+        // Positions from the server first, so behaviours and gravity start from them
+        kinematics.applyPending();
+        for (Bot bot : bots) {
+            bot.tickBehaviour();
+            bot.updateGroundY();
+        }
+        // One pass over the kinematic arrays of all bots
+        kinematics.integrate();
+        // One movement packet per bot which moved, turned or is due for a heartbeat
+        for (Bot bot : bots) {
+            if (!bot.isConnected()) continue;
+            int movement = kinematics.takeMovement(bot.getId());
+            if (movement == 0) continue;
+            Channel channel = bot.getChannel();
+            MinecraftPacket packet = bot.createMovementPacket(movement);
+            if (channel != null && packet != null) this.writeBatch.add(channel, packet);
+        }
+        // All channels of an event loop are flushed in one go
+        this.writeBatch.flush();
+        this.lastTickNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Get the time the last gravity tick took
+     *
+     * @return Last tick time in milliseconds
+     */
+    public double getLastTickTime() {
+        return this.lastTickNanos / 1_000_000d;
+    }
+
+    public void stopTimer() {
+        if (this.executor == null) return;
+        this.executor.shutdownNow();
+        this.executor = null;
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.shanebeestudios.stress.api.trace;
+
+import com.shanebeestudios.stress.api.util.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded trace of a player, read from a file written by {@link TraceWriter}
+ * <p>Traces are immutable and can be replayed by many bots at once.</p>
+ */
+@SuppressWarnings("unused")
+public class Trace {
+
+    private final String name;
+    private final long recordedAt;
+    private final List<TraceEvent> events;
+
+    private Trace(String name, long recordedAt, List<TraceEvent> events) {
+        this.name = name;
+        this.recordedAt = recordedAt;
+        this.events = events;
+    }
+
+    /**
+     * Read a trace from a file
+     *
+     * @param file File to read
+     * @return Trace of file
+     * @throws IOException If the file could not be read or is not a trace
+     */
+    public static Trace read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 16384))) {
+            if (in.readInt() != TraceWriter.MAGIC) throw new IOException("Not a trace file: " + file);
+            int version = in.readUnsignedByte();
+            if (version != TraceWriter.VERSION) throw new IOException("Unsupported trace version " + version + ": " + file);
+            long recordedAt = in.readLong();
+
+            List<TraceEvent> events = new ArrayList<>();
+            long time = 0;
+            while (true) {
+                try {
+                    time += readVarInt(in);
+                    events.add(readEvent(in, time, file));
+                } catch (EOFException e) {
+                    // End of trace, or the last event was cut off when the server stopped
+                    break;
+                }
+            }
+            return new Trace(file.getName(), recordedAt, List.copyOf(events));
+        }
+    }
+
+    /**
+     * Read all traces in a directory
+     * <p>Files that are not traces, or are broken, are skipped with a warning</p>
+     *
+     * @param directory Directory to read from
+     * @return Traces in directory
+     * @throws IOException If the directory could not be read
+     */
+    public static List<Trace> readAll(File directory) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".stbt"));
+        if (files == null) throw new IOException("Not a directory: " + directory);
+        List<Trace> traces = new ArrayList<>();
+        for (File file : files) {
+            Trace trace;
+            try {
+                trace = read(file);
+            } catch (IOException e) {
+                // One foreign or truncated file shouldn't stop the others from being replayed
+                Logger.warn("Skipping trace '&b%s&e': %s", file.getName(), e.getMessage());
+                continue;
+            }
+            if (!trace.events.isEmpty()) traces.add(trace);
+        }
+        return traces;
+    }
+
+    /**
+     * Get the name of this trace
+     *
+     * @return Name of file this trace was read from
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the time this trace was recorded
+     *
+     * @return Epoch milliseconds when recording started
+     */
+    public long getRecordedAt() {
+        return this.recordedAt;
+    }
+
+    /**
+     * Get the events of this trace in order
+     *
+     * @return Events of trace
+     */
+    public List<TraceEvent> getEvents() {
+        return this.events;
+    }
+
+    /**
+     * Get the duration of this trace
+     *
+     * @return Milliseconds from start to last event
+     */
+    public long getDuration() {
+        return this.events.isEmpty() ? 0 : this.events.getLast().time();
+    }
+
+    private static TraceEvent readEvent(DataInputStream in, long time, File file) throws IOException {
+        int type = in.readUnsignedByte();
+        return switch (type) {
+            case TraceWriter.MOVE -> new TraceEvent.Move(time, in.readFloat(), in.readFloat(), in.readFloat(),
+                in.readFloat(), in.readFloat(), in.readBoolean());
+            case TraceWriter.CHAT -> new TraceEvent.Chat(time, in.readUTF());
+            case TraceWriter.COMMAND -> new TraceEvent.Command(time, in.readUTF());
+            case TraceWriter.SWING -> new TraceEvent.Swing(time);
+            case TraceWriter.HELD_ITEM -> new TraceEvent.HeldItem(time, in.readUnsignedByte());
+            case TraceWriter.USE_ITEM -> new TraceEvent.UseItem(time);
+            default -> throw new IOException("Unknown trace event " + type + " in " + file);
+        };
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+            if (shift > 35) throw new IOException("VarInt too big");
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+}
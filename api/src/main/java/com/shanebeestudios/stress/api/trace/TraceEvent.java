@@ -0,0 +1,73 @@
+package com.shanebeestudios.stress.api.trace;
+
+/**
+ * Event of a recorded player
+ * <p>Times are in milliseconds since the start of the trace</p>
+ */
+public sealed interface TraceEvent {
+
+    /**
+     * Get the time of this event
+     *
+     * @return Milliseconds since start of trace
+     */
+    long time();
+
+    /**
+     * Player moved or looked around
+     *
+     * @param time     Milliseconds since start of trace
+     * @param x        X offset from the first position of the trace
+     * @param y        Y offset from the first position of the trace
+     * @param z        Z offset from the first position of the trace
+     * @param yaw      Yaw of player
+     * @param pitch    Pitch of player
+     * @param onGround Whether the player was on the ground
+     */
+    record Move(long time, float x, float y, float z, float yaw, float pitch, boolean onGround) implements TraceEvent {
+    }
+
+    /**
+     * Player sent a chat message
+     *
+     * @param time    Milliseconds since start of trace
+     * @param message Message that was sent
+     */
+    record Chat(long time, String message) implements TraceEvent {
+    }
+
+    /**
+     * Player ran a command
+     *
+     * @param time    Milliseconds since start of trace
+     * @param command Command without leading slash
+     */
+    record Command(long time, String command) implements TraceEvent {
+    }
+
+    /**
+     * Player swung their arm
+     *
+     * @param time Milliseconds since start of trace
+     */
+    record Swing(long time) implements TraceEvent {
+    }
+
+    /**
+     * Player changed their held hotbar slot
+     *
+     * @param time Milliseconds since start of trace
+     * @param slot Hotbar slot (0 - 8)
+     */
+    record HeldItem(long time, int slot) implements TraceEvent {
+    }
+
+    /**
+     * Player used the item in their hand
+     *
+     * @param time Milliseconds since start of trace
+     */
+    record UseItem(long time) implements TraceEvent {
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.shanebeestudios.stress.api.trace;
+
+import com.shanebeestudios.stress.api.behaviour.BotBehaviour;
+import com.shanebeestudios.stress.api.bot.Bot;
+
+import java.util.List;
+
+/**
+ * Replay a recorded {@link Trace} with a bot
+ * <p>Moves are replayed relative to where the bot is when the replay starts.
+ * Only the last move of each client tick is sent, like a real client would.</p>
+ * <p>The bot stands on the ground where it is known, the recorded Y is only used above unknown ground.
+ * Moves further than {@link Bot#MAX_MOVE} are spread over multiple ticks.</p>
+ */
+public class TraceReplayBehaviour implements BotBehaviour {
+
+    private final List<TraceEvent> events;
+    private final double timeScale;
+    private final long startDelay;
+    private long startNanos;
+    private double originX, originY, originZ;
+    private double targetX, targetY, targetZ;
+    private float targetYaw, targetPitch;
+    private boolean moving;
+    private int index;
+
+    /**
+     * Create a trace replay
+     *
+     * @param trace      Trace to replay
+     * @param timeScale  Speed of replay, ie: 2 = twice as fast
+     * @param startDelay Delay in milliseconds before the replay starts
+     */
+    public TraceReplayBehaviour(Trace trace, double timeScale, long startDelay) {
+        if (timeScale <= 0) throw new IllegalArgumentException("Time scale has to be positive");
+        this.events = trace.getEvents();
+        this.timeScale = timeScale;
+        this.startDelay = startDelay;
+    }
+
+    @Override
+    public boolean tick(Bot bot) {
+        long now = System.nanoTime();
+        if (this.startNanos == 0) {
+            this.startNanos = now + this.startDelay * 1_000_000;
+            this.originX = bot.getX();
+            this.originY = bot.getY();
+            this.originZ = bot.getZ();
+        }
+        if (now < this.startNanos) return true;
+
+        double elapsed = (now - this.startNanos) / 1_000_000d * this.timeScale;
+        while (this.index < this.events.size() && this.events.get(this.index).time() <= elapsed) {
+            switch (this.events.get(this.index++)) {
+                case TraceEvent.Move move -> {
+                    this.targetX = this.originX + move.x();
+                    this.targetY = this.originY + move.y();
+                    this.targetZ = this.originZ + move.z();
+                    this.targetYaw = move.yaw();
+                    this.targetPitch = move.pitch();
+                    this.moving = true;
+                }
+                case TraceEvent.Chat chat -> bot.sendChat(chat.message());
+                case TraceEvent.Command command -> bot.sendChat("/" + command.command());
+                case TraceEvent.Swing ignored -> bot.swingArm();
+                case TraceEvent.HeldItem heldItem -> bot.setHeldSlot(heldItem.slot());
+                case TraceEvent.UseItem ignored -> bot.useItem();
+            }
+        }
+        if (this.moving) step(bot);
+        return this.moving || this.index < this.events.size();
+    }
+
+    // Move towards the target, at most as far as the server accepts in one tick
+    private void step(Bot bot) {
+        double distanceX = this.targetX - bot.getX();
+        double distanceZ = this.targetZ - bot.getZ();
+        double length = Math.sqrt(distanceX * distanceX + distanceZ * distanceZ);
+        double scale = length > Bot.MAX_MOVE ? Bot.MAX_MOVE / length : 1;
+        double moveX = distanceX * scale;
+        double moveZ = distanceZ * scale;
+        double x = bot.getX() + moveX;
+        double z = bot.getZ() + moveZ;
+
+        double groundY = bot.getBotManager().getHeightmapCache().getGroundY(bot.getWorld(), x, z);
+        double distanceY = (Double.isNaN(groundY) ? this.targetY : groundY) - bot.getY();
+        // Climb with what is left of the max move
+        double maxY = Math.sqrt(Math.max(0, Bot.MAX_MOVE * Bot.MAX_MOVE - moveX * moveX - moveZ * moveZ));
+        double moveY = Math.max(-maxY, Math.min(maxY, distanceY));
+
+        this.moving = scale < 1 || moveY != distanceY;
+        bot.moveTo(x, bot.getY() + moveY, z, this.targetYaw, this.targetPitch);
+    }
+
+}
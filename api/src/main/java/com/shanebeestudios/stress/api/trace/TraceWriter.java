@@ -0,0 +1,162 @@
+package com.shanebeestudios.stress.api.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the events of one player to a binary trace file
+ * <p>Format: magic {@code STBT}, version byte, start time (epoch ms), then per event
+ * the time since the previous event (VarInt ms), the event type byte and its data.
+ * Moves are stored as float offsets from the first position, so traces can be replayed anywhere.</p>
+ * <p>Writing is synchronized, events can come from multiple threads.</p>
+ */
+@SuppressWarnings("unused")
+public class TraceWriter implements Closeable {
+
+    static final int MAGIC = 0x53544254; // STBT
+    static final int VERSION = 1;
+    static final int MOVE = 0;
+    static final int CHAT = 1;
+    static final int COMMAND = 2;
+    static final int SWING = 3;
+    static final int HELD_ITEM = 4;
+    static final int USE_ITEM = 5;
+
+    private final DataOutputStream out;
+    private final long startNanos;
+    private long lastTime;
+    private boolean hasOrigin;
+    private double originX, originY, originZ;
+    private int events;
+
+    /**
+     * Create a new trace file
+     *
+     * @param file File to write to
+     * @throws IOException If the file could not be created
+     */
+    public TraceWriter(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 16384));
+        this.startNanos = System.nanoTime();
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Write a movement
+     *
+     * @param x        X coord of player
+     * @param y        Y coord of player
+     * @param z        Z coord of player
+     * @param yaw      Yaw of player
+     * @param pitch    Pitch of player
+     * @param onGround Whether the player is on the ground
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeMove(double x, double y, double z, float yaw, float pitch, boolean onGround) throws IOException {
+        if (!this.hasOrigin) {
+            this.hasOrigin = true;
+            this.originX = x;
+            this.originY = y;
+            this.originZ = z;
+        }
+        writeHeader(MOVE);
+        this.out.writeFloat((float) (x - this.originX));
+        this.out.writeFloat((float) (y - this.originY));
+        this.out.writeFloat((float) (z - this.originZ));
+        this.out.writeFloat(yaw);
+        this.out.writeFloat(pitch);
+        this.out.writeBoolean(onGround);
+    }
+
+    /**
+     * Write a chat message
+     *
+     * @param message Message that was sent
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeChat(String message) throws IOException {
+        writeHeader(CHAT);
+        this.out.writeUTF(message);
+    }
+
+    /**
+     * Write a command
+     *
+     * @param command Command without leading slash
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeCommand(String command) throws IOException {
+        writeHeader(COMMAND);
+        this.out.writeUTF(command);
+    }
+
+    /**
+     * Write an arm swing
+     *
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeSwing() throws IOException {
+        writeHeader(SWING);
+    }
+
+    /**
+     * Write a change of held hotbar slot
+     *
+     * @param slot Hotbar slot (0 - 8)
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeHeldItem(int slot) throws IOException {
+        writeHeader(HELD_ITEM);
+        this.out.writeByte(slot);
+    }
+
+    /**
+     * Write the use of an item
+     *
+     * @throws IOException If writing failed
+     */
+    public synchronized void writeUseItem() throws IOException {
+        writeHeader(USE_ITEM);
+    }
+
+    /**
+     * Get the amount of events written
+     *
+     * @return Amount of events
+     */
+    public synchronized int getEvents() {
+        return this.events;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.out.close();
+    }
+
+    private void writeHeader(int type) throws IOException {
+        long time = (System.nanoTime() - this.startNanos) / 1_000_000;
+        writeVarInt((int) Math.min(Integer.MAX_VALUE, time - this.lastTime));
+        this.lastTime = time;
+        this.out.writeByte(type);
+        this.events++;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            this.out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.out.writeByte(value);
+    }
+
+}
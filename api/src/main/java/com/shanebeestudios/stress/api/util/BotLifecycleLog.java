@@ -0,0 +1,191 @@
+package com.shanebeestudios.stress.api.util;
+
+import com.shanebeestudios.stress.api.chat.TokenBucket;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs bot lifecycle events (created, connected, disconnected) off the packet threads
+ * <p>Events are counted where they happen and put on a bounded queue, a log thread formats them.
+ * Every few seconds one summary is logged, ie: "412 bots connected, 3 disconnected (reason: X)".</p>
+ * <p>Per bot lines are only logged in {@link #setVerbose(boolean) verbose} mode, and are rate limited.</p>
+ */
+@SuppressWarnings("unused")
+public class BotLifecycleLog {
+
+    /**
+     * Type of lifecycle event
+     */
+    public enum Type {
+        CREATED("created"),
+        CONNECTED("connected"),
+        DISCONNECTED("disconnected");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+    }
+
+    // Time between summaries
+    private static final long SUMMARY_INTERVAL = 5000;
+    private static final int QUEUE_SIZE = 8192;
+    // Reasons beyond this are counted as other
+    private static final int MAX_REASONS = 8;
+    private static final Type[] TYPES = Type.values();
+
+    private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final LongAdder[] counts = new LongAdder[TYPES.length];
+    private final LongAdder dropped = new LongAdder();
+    private final TokenBucket verboseBucket;
+    // Only touched by the log thread
+    private final Map<String, Integer> reasons = new LinkedHashMap<>();
+    private int suppressed;
+    private volatile boolean verbose;
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    /**
+     * Create and start a lifecycle log
+     *
+     * @param verboseLinesPerSecond Max per bot lines logged per second in verbose mode
+     */
+    public BotLifecycleLog(double verboseLinesPerSecond) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = new LongAdder();
+        }
+        this.verboseBucket = new TokenBucket(verboseLinesPerSecond, (int) Math.max(1, verboseLinesPerSecond));
+        this.thread = Thread.ofPlatform().daemon().name("StressTestBots-Log").start(this::run);
+    }
+
+    /**
+     * Check if per bot lines are logged
+     *
+     * @return True if verbose
+     */
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    /**
+     * Set whether per bot lines are logged
+     * <p>Summaries are always logged</p>
+     *
+     * @param verbose True to log a line per event
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Record an event
+     *
+     * @param type Type of event
+     * @param name Name of bot
+     */
+    public void record(Type type, String name) {
+        record(type, name, null);
+    }
+
+    /**
+     * Record an event
+     * <p>Safe to call from any thread, never blocks</p>
+     *
+     * @param type   Type of event
+     * @param name   Name of bot
+     * @param reason Reason of a disconnect, serialized on the log thread
+     */
+    public void record(Type type, String name, @Nullable Component reason) {
+        this.counts[type.ordinal()].increment();
+        // Reasons are grouped on the log thread, other events are only queued when they are logged
+        if (reason == null && !this.verbose) return;
+        if (!this.queue.offer(new Event(type, name, reason))) this.dropped.increment();
+    }
+
+    /**
+     * Stop the log thread, logging a last summary
+     */
+    public void stop() {
+        this.running = false;
+        this.thread.interrupt();
+    }
+
+    private void run() {
+        long nextSummary = System.currentTimeMillis() + SUMMARY_INTERVAL;
+        while (this.running) {
+            try {
+                Event event = this.queue.poll(Math.max(1, nextSummary - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (event != null) handle(event);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (System.currentTimeMillis() >= nextSummary) {
+                logSummary();
+                nextSummary += SUMMARY_INTERVAL;
+            }
+        }
+        Event event;
+        while ((event = this.queue.poll()) != null) {
+            handle(event);
+        }
+        logSummary();
+    }
+
+    private void handle(Event event) {
+        String reason = null;
+        if (event.reason != null) {
+            reason = LegacyComponentSerializer.legacyAmpersand().serialize(event.reason);
+            String key = this.reasons.containsKey(reason) || this.reasons.size() < MAX_REASONS ? reason : "other";
+            this.reasons.merge(key, 1, Integer::sum);
+        }
+        if (!this.verbose) return;
+        if (!this.verboseBucket.tryAcquire()) {
+            this.suppressed++;
+        } else if (reason != null) {
+            Logger.info("Bot '&b%s&7' %s, reason: &e%s", event.name, event.type.name, reason);
+        } else {
+            Logger.info("Bot '&b%s&7' %s", event.name, event.type.name);
+        }
+    }
+
+    private void logSummary() {
+        StringBuilder builder = new StringBuilder();
+        for (Type type : TYPES) {
+            long count = this.counts[type.ordinal()].sumThenReset();
+            if (count == 0) continue;
+            if (!builder.isEmpty()) builder.append(", ");
+            builder.append("&b").append(count).append("&7 ").append(type.name);
+        }
+        if (!this.reasons.isEmpty()) {
+            builder.append(" (");
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : this.reasons.entrySet()) {
+                if (!first) builder.append("&7, ");
+                first = false;
+                builder.append("&e").append(entry.getValue()).append("x &r&e").append(entry.getKey());
+            }
+            builder.append("&7)");
+            this.reasons.clear();
+        }
+        if (builder.isEmpty()) return;
+        long dropped = this.dropped.sumThenReset();
+        if (dropped > 0 || this.suppressed > 0) {
+            builder.append(", &e").append(dropped + this.suppressed).append("&7 lines not logged");
+            this.suppressed = 0;
+        }
+        Logger.info("Bots in last %ss: %s", SUMMARY_INTERVAL / 1000, builder);
+    }
+
+    private record Event(Type type, String name, @Nullable Component reason) {
+    }
+
+}
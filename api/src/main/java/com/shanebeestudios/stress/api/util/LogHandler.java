@@ -0,0 +1,23 @@
+package com.shanebeestudios.stress.api.util;
+
+/**
+ * Handler for messages logged by the {@link Logger}
+ */
+public interface LogHandler {
+
+    /**
+     * Log a message to the console
+     *
+     * @param message Message with '&amp;' colour codes
+     */
+    void log(String message);
+
+    /**
+     * Translate the colour codes of a message
+     *
+     * @param message Message with '&amp;' colour codes
+     * @return Message ready to be displayed
+     */
+    String colorize(String message);
+
+}
@@ -0,0 +1,118 @@
+package com.shanebeestudios.stress.api.util;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Pattern;
+
+/**
+ * Main logger for logging messages
+ */
+@SuppressWarnings("unused")
+public class Logger {
+
+    private static final String PREFIX = "&7[&bStress&3Test&bBots&7]";
+    private static final String PREFIX_ERROR = "&7[&bStress&3Test&bBots &cERROR&7]&c";
+    private static final String PREFIX_WARN = "&7[&bStress&3Test&bBots &eWARN&7]&e";
+    // Strips colour codes when logging without a server
+    private static final Pattern COLOR_PATTERN = Pattern.compile("&[0-9a-fk-orA-FK-OR]|<#[A-Fa-f\\d]{6}>");
+    private static final LogHandler CONSOLE_HANDLER = new LogHandler() {
+        @Override
+        public void log(String message) {
+            System.out.println(colorize(message));
+        }
+
+        @Override
+        public String colorize(String message) {
+            return stripColors(message);
+        }
+    };
+
+    private static volatile LogHandler handler = CONSOLE_HANDLER;
+
+    /**
+     * Set the handler messages are logged to
+     * <p>Without a handler messages are printed to the console without colours</p>
+     *
+     * @param logHandler Handler to log to, null to reset to the console
+     */
+    public static void setHandler(@Nullable LogHandler logHandler) {
+        handler = logHandler != null ? logHandler : CONSOLE_HANDLER;
+    }
+
+    /**
+     * Format a message with the prefix and translate its colour codes
+     * <p>Used to send messages to players, ie: command senders</p>
+     *
+     * @param format  Format of message
+     * @param objects Objects to format into message
+     * @return Message ready to be displayed
+     */
+    public static String format(String format, Object... objects) {
+        return handler.colorize(PREFIX + " " + String.format(format, objects));
+    }
+
+    /**
+     * Log a message to a command sender
+     *
+     * @param sender  Sender message will go to, ie: a Bukkit command sender
+     * @param format  Format of message to send
+     * @param objects Objects to format into message
+     * @deprecated The api no longer depends on Bukkit, send {@link #format(String, Object...)} to the sender instead
+     */
+    @Deprecated
+    public static void logToSender(Audience sender, String format, Object... objects) {
+        sender.sendMessage(LegacyComponentSerializer.legacySection().deserialize(format(format, objects)));
+    }
+
+    // Package private for benchmarks
+    static String stripColors(String message) {
+        return COLOR_PATTERN.matcher(message).replaceAll("");
+    }
+
+    private static void log(String prefix, String message) {
+        handler.log(prefix + " " + message);
+    }
+
+    /**
+     * Log an error message to console
+     *
+     * @param format  Format of error message to log
+     * @param objects Objects to format into message
+     */
+    public static void error(String format, Object... objects) {
+        log(PREFIX_ERROR, String.format(format, objects));
+    }
+
+    /**
+     * Print a stacktrace to console
+     *
+     * @param e Exception to print
+     */
+    @SuppressWarnings("CallToPrintStackTrace")
+    public static void error(Throwable e) {
+        e.printStackTrace();
+    }
+
+    /**
+     * Log a message to console
+     *
+     * @param format  Format of message to log
+     * @param objects Objects to format into message
+     */
+    public static void info(String format, Object... objects) {
+        log(PREFIX, String.format(format, objects));
+    }
+
+    /**
+     * Log a warning message to console
+     *
+     * @param format  Format of warning message to log
+     * @param objects Objects to format into message
+     */
+    public static void warn(String format, Object... objects) {
+        log(PREFIX_WARN, String.format(format, objects));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.shanebeestudios.stress.api.util;
+
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * General utility methods
+ */
+public class Utils {
+
+    /**
+     * Get a UUID from a player name
+     *
+     * @param playerName Player name to fetch UUID from
+     * @return UUID from player name if available
+     */
+    @Nullable
+    public static UUID nameToUUID(String playerName) {
+        try {
+            return lookupUUID(playerName);
+        } catch (IOException ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * Get a UUID from a player name, telling apart names without profile and failed lookups
+     *
+     * @param playerName Player name to fetch UUID from
+     * @return UUID from player name, null if Mojang has no profile with that name
+     * @throws IOException If the lookup failed, ie: no connection or rate limited
+     */
+    @Nullable
+    public static UUID lookupUUID(String playerName) throws IOException {
+        HttpURLConnection connection;
+        try {
+            connection = (HttpURLConnection) new URI("https://api.mojang.com/users/profiles/minecraft/" + playerName).toURL().openConnection();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid name: " + playerName, e);
+        }
+        try {
+            int code = connection.getResponseCode();
+            // Mojang answers with no content (or not found) for names without profile
+            if (code == HttpURLConnection.HTTP_NO_CONTENT || code == HttpURLConnection.HTTP_NOT_FOUND) return null;
+            if (code != HttpURLConnection.HTTP_OK) throw new IOException("HTTP " + code);
+            try (Reader reader = new InputStreamReader(connection.getInputStream())) {
+                JSONObject json = (JSONObject) new JSONParser().parse(reader);
+                String uuidString = (String) json.get("id");
+                if (uuidString == null) throw new IOException("No id in response");
+                return UUID.fromString(uuidString.replaceFirst("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})", "$1-$2-$3-$4-$5"));
+            } catch (ParseException | ClassCastException e) {
+                throw new IOException("Invalid response: " + e.getMessage(), e);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Create an InetAddress from host and port
+     *
+     * @param address Host address to connect to
+     * @param port    Port to connect to
+     * @return InetAddress
+     */
+    public static InetSocketAddress createInetAddress(String address, int port) {
+        try {
+            InetAddress inetAddress = InetAddress.getByName(address);
+            return new InetSocketAddress(inetAddress.getHostAddress(), port);
+        } catch (UnknownHostException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
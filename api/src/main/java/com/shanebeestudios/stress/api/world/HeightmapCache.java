@@ -0,0 +1,176 @@
+package com.shanebeestudios.stress.api.world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client side heightmap of all chunks received by bots
+ * <p>Built from the heightmaps sent with chunk packets and kept up to date with block changes,
+ * so bots can resolve the ground below them without asking the server.</p>
+ * <p>Chunks are shared between bots in the same world and reference counted.</p>
+ */
+@SuppressWarnings("unused")
+public class HeightmapCache {
+
+    private final Map<String, Map<Long, ChunkHeights>> worlds = new ConcurrentHashMap<>();
+    private volatile PassableStates passableStates = PassableStates.AIR;
+
+    /**
+     * Get the block states bots walk through, used for block changes
+     *
+     * @return Passable block states
+     */
+    public PassableStates getPassableStates() {
+        return this.passableStates;
+    }
+
+    /**
+     * Set the block states bots walk through, used for block changes
+     *
+     * @param passableStates Passable block states
+     */
+    public void setPassableStates(PassableStates passableStates) {
+        this.passableStates = passableStates;
+    }
+
+    /**
+     * Load a chunk from its motion blocking heightmap
+     *
+     * @param world     Name of world
+     * @param chunkX    X coord of chunk
+     * @param chunkZ    Z coord of chunk
+     * @param heightmap Packed motion blocking heightmap as sent by the server
+     * @param minY      Minimum Y of the world
+     */
+    public void loadChunk(String world, int chunkX, int chunkZ, long[] heightmap, int minY) {
+        short[] heights = unpack(heightmap, minY);
+        if (heights == null) return;
+        getWorld(world).compute(chunkKey(chunkX, chunkZ), (key, chunk) -> {
+            if (chunk == null) chunk = new ChunkHeights();
+            chunk.heights = heights;
+            chunk.references++;
+            return chunk;
+        });
+    }
+
+    /**
+     * Replace the heights of a chunk which is already loaded, ie: when the server sends it again
+     * <p>Does not add a reference, the chunk is loaded once per bot</p>
+     *
+     * @param world     Name of world
+     * @param chunkX    X coord of chunk
+     * @param chunkZ    Z coord of chunk
+     * @param heightmap Packed motion blocking heightmap as sent by the server
+     * @param minY      Minimum Y of the world
+     */
+    public void reloadChunk(String world, int chunkX, int chunkZ, long[] heightmap, int minY) {
+        short[] heights = unpack(heightmap, minY);
+        if (heights == null) return;
+        getWorld(world).computeIfPresent(chunkKey(chunkX, chunkZ), (key, chunk) -> {
+            chunk.heights = heights;
+            return chunk;
+        });
+    }
+
+    /**
+     * Unload a chunk previously loaded with {@link #loadChunk(String, int, int, long[], int)}
+     * <p>The chunk is only removed once all bots unloaded it</p>
+     *
+     * @param world  Name of world
+     * @param chunkX X coord of chunk
+     * @param chunkZ Z coord of chunk
+     */
+    public void unloadChunk(String world, int chunkX, int chunkZ) {
+        getWorld(world).computeIfPresent(chunkKey(chunkX, chunkZ), (key, chunk) -> --chunk.references > 0 ? chunk : null);
+    }
+
+    /**
+     * Update the heightmap after a block changed
+     *
+     * @param world Name of world
+     * @param x     X coord of block
+     * @param y     Y coord of block
+     * @param z     Z coord of block
+     * @param air   Whether bots walk through the block now, see {@link #getPassableStates()}
+     */
+    public void blockChange(String world, int x, int y, int z, boolean air) {
+        ChunkHeights chunk = getWorld(world).get(chunkKey(x >> 4, z >> 4));
+        if (chunk == null) return;
+        int index = ((z & 15) << 4) | (x & 15);
+        short[] heights = chunk.heights;
+        int height = heights[index];
+        if (!air && y >= height) {
+            heights[index] = (short) (y + 1);
+        } else if (air && y == height - 1) {
+            // We don't keep the blocks below, assume the block below the removed one is solid
+            heights[index] = (short) y;
+        }
+    }
+
+    /**
+     * Get the Y coord a bot would stand on
+     *
+     * @param world Name of world
+     * @param x     X coord
+     * @param z     Z coord
+     * @return Ground Y, or {@link Double#NaN} if the chunk is not loaded
+     */
+    public double getGroundY(String world, double x, double z) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
+        ChunkHeights chunk = getWorld(world).get(chunkKey(blockX >> 4, blockZ >> 4));
+        if (chunk == null) return Double.NaN;
+        return chunk.heights[((blockZ & 15) << 4) | (blockX & 15)];
+    }
+
+    /**
+     * Get the amount of chunks currently cached
+     *
+     * @return Amount of cached chunks
+     */
+    public int getChunkCount() {
+        int count = 0;
+        for (Map<Long, ChunkHeights> chunks : this.worlds.values()) {
+            count += chunks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Create a key for a chunk
+     *
+     * @param chunkX X coord of chunk
+     * @param chunkZ Z coord of chunk
+     * @return Key of chunk
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private Map<Long, ChunkHeights> getWorld(String world) {
+        return this.worlds.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
+    }
+
+    private static short[] unpack(long[] data, int minY) {
+        if (data == null || data.length == 0) return null;
+        // The amount of bits per entry depends on the world height, work it out from the array length
+        int bits = 1;
+        while (bits < 32 && (256 + (64 / bits) - 1) / (64 / bits) != data.length) bits++;
+        if (bits == 32) return null;
+
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        short[] heights = new short[256];
+        for (int i = 0; i < 256; i++) {
+            long value = (data[i / valuesPerLong] >>> ((i % valuesPerLong) * bits)) & mask;
+            heights[i] = (short) (minY + value);
+        }
+        return heights;
+    }
+
+    private static class ChunkHeights {
+        private volatile short[] heights;
+        private int references;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.shanebeestudios.stress.api.world;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * Lookup of block states bots walk through, ie: air, plants and fluids
+ * <p>Block state IDs change with each Minecraft version and bots don't know the block registry,
+ * so the states are read from the {@code blocks.json} data report of the server version, created with
+ * {@code java -DbundlerMainClass=net.minecraft.data.Main -jar server.jar --reports}.</p>
+ * <p>Without a report only state 0 (air) is known to be passable.</p>
+ */
+@SuppressWarnings("unused")
+public class PassableStates {
+
+    /**
+     * Lookup which only knows air
+     */
+    public static final PassableStates AIR = new PassableStates(BitSet.valueOf(new long[]{1}));
+
+    // Block types (definition type in the report) without collision
+    private static final Set<String> PASSABLE_TYPES = Set.of("air", "liquid", "bush", "flower", "tall_grass", "double_plant",
+        "sapling", "mushroom", "crop", "stem", "sugar_cane", "vine", "seagrass", "tall_seagrass", "kelp", "kelp_plant",
+        "torch", "wall_torch", "redstone_torch", "redstone_wall_torch", "fire", "soul_fire", "button", "lever",
+        "pressure_plate", "weighted_pressure_plate", "rail", "powered_rail", "detector_rail", "redstone_wire",
+        "tripwire", "tripwire_hook", "standing_sign", "wall_sign", "light", "structure_void");
+
+    private final BitSet states;
+
+    private PassableStates(BitSet states) {
+        this.states = states;
+    }
+
+    /**
+     * Load the passable states from a {@code blocks.json} data report
+     *
+     * @param report Path of report
+     * @return Passable states of the report
+     * @throws IOException If the report could not be read or is not a block report
+     */
+    public static PassableStates load(Path report) throws IOException {
+        JSONObject blocks;
+        try (Reader reader = Files.newBufferedReader(report)) {
+            blocks = (JSONObject) new JSONParser().parse(reader);
+        } catch (ParseException | ClassCastException e) {
+            throw new IOException("Not a block report: " + e.getMessage(), e);
+        }
+        BitSet states = new BitSet();
+        for (Object value : blocks.values()) {
+            if (!(value instanceof JSONObject block) || !(block.get("states") instanceof JSONArray blockStates)) {
+                throw new IOException("Not a block report");
+            }
+            JSONObject definition = (JSONObject) block.get("definition");
+            String type = definition != null ? (String) definition.get("type") : null;
+            if (type == null) continue;
+            type = type.substring(type.indexOf(':') + 1);
+            boolean snow = type.equals("snow_layer");
+            if (!snow && !PASSABLE_TYPES.contains(type)) continue;
+            for (Object object : blockStates) {
+                JSONObject state = (JSONObject) object;
+                JSONObject properties = (JSONObject) state.get("properties");
+                // Only the lowest snow layer has no collision
+                if (snow && (properties == null || !"1".equals(properties.get("layers")))) continue;
+                states.set(((Number) state.get("id")).intValue());
+            }
+        }
+        if (!states.get(0)) throw new IOException("Not a block report, air is missing");
+        return new PassableStates(states);
+    }
+
+    /**
+     * Check if bots walk through a block state
+     *
+     * @param blockState Block state ID
+     * @return True if the block state has no collision
+     */
+    public boolean isPassable(int blockState) {
+        return blockState >= 0 && this.states.get(blockState);
+    }
+
+    /**
+     * Get the amount of passable block states
+     *
+     * @return Amount of passable states
+     */
+    public int size() {
+        return this.states.cardinality();
+    }
+
+}
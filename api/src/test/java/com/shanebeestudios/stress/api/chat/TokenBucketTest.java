@@ -0,0 +1,57 @@
+package com.shanebeestudios.stress.api.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void idleBucketGrantsExactlyBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        // Idle for a long time, the bucket must not hold more than its burst
+        long now = System.nanoTime() + 60 * SECOND;
+        assertEquals(5, drain(bucket, now));
+    }
+
+    @Test
+    void refillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime() + 60 * SECOND;
+        drain(bucket, now);
+        assertFalse(bucket.tryAcquire(now));
+        // 10 per second, one token every 100ms
+        assertTrue(bucket.tryAcquire(now + SECOND / 10));
+        assertFalse(bucket.tryAcquire(now + SECOND / 10));
+        assertEquals(3, drain(bucket, now + SECOND / 10 + 3 * SECOND / 10));
+    }
+
+    @Test
+    void newArrayBucketGrantsExactlyBurst() {
+        long interval = SECOND / 10;
+        long burstTime = interval * 5;
+        // Per bot buckets start empty of state
+        long[] buckets = {Long.MIN_VALUE};
+        long now = System.nanoTime();
+        int granted = 0;
+        while (TokenBucket.tryAcquire(buckets, 0, now, interval, burstTime)) {
+            granted++;
+        }
+        assertEquals(5, granted);
+    }
+
+    private static int drain(TokenBucket bucket, long now) {
+        int granted = 0;
+        while (bucket.tryAcquire(now)) {
+            granted++;
+        }
+        return granted;
+    }
+
+}
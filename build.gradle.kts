@@ -7,7 +7,6 @@ plugins {
 val pluginVersion = "1.1.0"
 val minecraftVersion = "1.21.11"
 val protocolVersion = "1.21.11-SNAPSHOT"
-val adventureVer = "4.25.0"
 val commandApiVer = "11.0.1-SNAPSHOT"
 
 repositories {
@@ -25,9 +24,8 @@ repositories {
 }
 
 dependencies {
-    // McProtocol
-    implementation("org.geysermc.mcprotocollib:protocol:$protocolVersion")
-    implementation("net.kyori:adventure-text-serializer-gson:$adventureVer")
+    // Bot api, brings McProtocol
+    implementation(project(":api"))
 
     // Paper
     compileOnly("io.papermc.paper:paper-api:$minecraftVersion-R0.1-SNAPSHOT")
@@ -71,6 +69,8 @@ tasks {
         archiveFileName = "${project.name}-${pluginVersion}-${minecraftVersion}.jar"
         minimize {
             exclude(dependency("org.cloudburstmc.math:.*:.*"))
+            // Api classes are used by other plugins
+            exclude(project(":api"))
         }
     }
     jar {
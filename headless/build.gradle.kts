@@ -0,0 +1,40 @@
+plugins {
+    id("java")
+    id("application")
+}
+
+repositories {
+    mavenCentral()
+    maven("https://jitpack.io")
+
+    // McProtocol
+    maven("https://repo.opencollab.dev/main/")
+}
+
+dependencies {
+    // Bot api, without Bukkit
+    implementation(project(":api"))
+    // Serializers the server provides to the plugin
+    runtimeOnly("net.kyori:adventure-text-serializer-legacy:4.25.0")
+    runtimeOnly("net.kyori:adventure-text-serializer-plain:4.25.0")
+
+    // Tests
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+application {
+    mainClass = "com.shanebeestudios.stress.headless.HeadlessRunner"
+}
+
+tasks {
+    compileJava {
+        options.release = 21
+        options.compilerArgs.add("-Xlint:unchecked")
+        options.compilerArgs.add("-Xlint:deprecation")
+    }
+    test {
+        useJUnitPlatform()
+    }
+}
@@ -0,0 +1,196 @@
+package com.shanebeestudios.stress.headless;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import com.shanebeestudios.stress.api.network.LoginFailure;
+import com.shanebeestudios.stress.api.network.LoginPipeline;
+import com.shanebeestudios.stress.api.network.PacketFilter;
+import com.shanebeestudios.stress.api.platform.HeadlessPlatform;
+import com.shanebeestudios.stress.api.script.ScriptContext;
+import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+import com.shanebeestudios.stress.api.world.PassableStates;
+import com.shanebeestudios.stress.headless.cluster.ClusterAgent;
+import com.shanebeestudios.stress.headless.cluster.ClusterCoordinator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standalone load generator, connects bots to a server without running inside it
+ * <p>Usage: {@code ./gradlew :headless:run --args="--host localhost --port 25565 --bots 100"},
+ * or {@code ./gradlew :headless:installDist} for a start script in {@code headless/build/install/headless/bin}</p>
+ * <p>Can also run as coordinator ({@code --coordinator <control port> --agents <amount>})
+ * or agent ({@code --agent <coordinator host:port>}) to spread the bots over multiple processes.</p>
+ */
+public class HeadlessRunner {
+
+    private static final long STATS_INTERVAL = 5000;
+
+    /**
+     * @param args Program arguments
+     * @hidden
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Map<String, String> options = parseArgs(args);
+        if (options.containsKey("help")) {
+            printHelp();
+            return;
+        }
+        String host = options.getOrDefault("host", "127.0.0.1");
+        int port = Integer.parseInt(options.getOrDefault("port", "25565"));
+        int bots = Integer.parseInt(options.getOrDefault("bots", "1"));
+        long joinDelay = Long.parseLong(options.getOrDefault("join-delay-ms", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "0"));
+        boolean gravity = !options.containsKey("no-gravity");
+
+        if (options.containsKey("coordinator")) {
+            ClusterCoordinator coordinator = new ClusterCoordinator(Integer.parseInt(options.get("coordinator")),
+                Integer.parseInt(options.getOrDefault("agents", "1")), host, port, bots, joinDelay);
+            Runtime.getRuntime().addShutdownHook(new Thread(coordinator::stop, "StressTestBots-Shutdown"));
+            coordinator.run();
+            return;
+        } else if (options.containsKey("agent")) {
+            String[] address = options.get("agent").split(":");
+            new ClusterAgent(address[0], Integer.parseInt(address[1]), threads, gravity).run();
+            System.exit(0);
+        }
+
+        BotManager botManager = new BotManager(3000, gravity, Utils.createInetAddress(host, port),
+            options.get("nicks"), options.get("prefix"), threads, new HeadlessPlatform());
+        botManager.getLifecycleLog().setVerbose(options.containsKey("verbose"));
+        if (options.containsKey("max-logins")) {
+            botManager.getLoginPipeline().setMaxInFlight(Integer.parseInt(options.get("max-logins")));
+        }
+        if (options.containsKey("skip-packets")) {
+            botManager.setPacketFilter(PacketFilter.fromNames(List.of(options.get("skip-packets").split(","))));
+        }
+        if (options.containsKey("block-report")) {
+            botManager.getHeightmapCache().setPassableStates(PassableStates.load(Path.of(options.get("block-report"))));
+        }
+
+        CountDownLatch finished = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Logger.info("Shutting down, disconnecting &b%s&7 bots", botManager.getRegistry().size());
+            botManager.getBots().forEach(botManager::disconnectBot);
+            botManager.shutdown();
+            finished.countDown();
+        }, "StressTestBots-Shutdown"));
+
+        Logger.info("Connecting &b%s&7 bots to &b%s:%s", bots, host, port);
+        boolean scripted = options.containsKey("scripted");
+        for (int i = 0; i < bots; i++) {
+            if (scripted) {
+                long delay = joinDelay * i;
+                botManager.createScriptedBot(null, context -> {
+                    context.sleep(delay);
+                    wanderScript(context);
+                });
+            } else {
+                // Each bot waits its turn, the scheduler handles the delays (in ticks)
+                botManager.createBot(null, joinDelay * i / 50);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        while (duration <= 0 || System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(duration)) {
+            if (finished.await(STATS_INTERVAL, TimeUnit.MILLISECONDS)) return;
+            logStats(botManager);
+        }
+        System.exit(0);
+    }
+
+    // Example script, wander around the spawn point and say something now and then
+    private static void wanderScript(ScriptContext context) {
+        context.login();
+        Bot bot = context.getBot();
+        double spawnX = bot.getX();
+        double spawnZ = bot.getZ();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            context.walkTo(spawnX + random.nextDouble(-16, 16), spawnZ + random.nextDouble(-16, 16));
+            if (random.nextInt(10) == 0) context.chat("Hello from " + bot.getNickname());
+            context.sleep(random.nextLong(500, 3000));
+        }
+    }
+
+    private static void logStats(BotManager botManager) {
+        int connected = 0;
+        for (Bot bot : botManager.getRegistry().snapshot()) {
+            if (bot.isConnected()) connected++;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long usedMemory = (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024;
+        Logger.info("Bots: &b%s&7 connected of &b%s&7, &b%s&7 scripts, heap &b%sMB&7, scheduler drift &e%.1fms",
+            connected, botManager.getRegistry().size(), botManager.getRunningScripts(), usedMemory,
+            botManager.getScheduler().getAverageDrift());
+        for (LatencyType type : LatencyType.values()) {
+            LatencyHistogram histogram = botManager.getLatencyStats().get(type);
+            if (histogram.getCount() == 0) continue;
+            Logger.info("- %s: &b%s&7 samples, p50 &e%.1fms&7, p99 &e%.1fms",
+                type.name().toLowerCase(), histogram.getCount(), histogram.getPercentile(0.5), histogram.getPercentile(0.99));
+        }
+        LoginPipeline pipeline = botManager.getLoginPipeline();
+        Logger.info("Logins: &b%s&7 in flight, &b%s&7 queued, &b%s&7 joined, failed: &e%s&7 throttled, &e%s&7 timed out, &e%s&7 kicked, &e%s&7 refused",
+            pipeline.getInFlight(), pipeline.getQueued(), pipeline.getJoined(),
+            pipeline.getFailures(LoginFailure.THROTTLED), pipeline.getFailures(LoginFailure.TIMED_OUT),
+            pipeline.getFailures(LoginFailure.KICKED), pipeline.getFailures(LoginFailure.REFUSED));
+        PacketFilter packetFilter = botManager.getPacketFilter();
+        if (packetFilter != null) {
+            Logger.info("Skipped &b%s&7 packets, &b%sKB&7 of &b%sKB&7 received", packetFilter.getSkippedPackets(),
+                packetFilter.getSkippedBytes() / 1024, packetFilter.getTotalBytes() / 1024);
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument '" + arg + "', use --help for usage");
+            }
+            String key = arg.substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                // Flags without value
+                options.put(key, "true");
+            }
+        }
+        return options;
+    }
+
+    private static void printHelp() {
+        System.out.println("""
+            Usage: HeadlessRunner [options]
+              --host <address>       Address of the server (default 127.0.0.1)
+              --port <port>          Port of the server (default 25565)
+              --bots <amount>        Amount of bots to connect (default 1)
+              --join-delay-ms <ms>   Delay between bot joins (default 100)
+              --threads <amount>     Packet threads, 0 = available processors (default 0)
+              --nicks <path>         Nickname file, built in names if not set
+              --prefix <prefix>      Prefix for bot names
+              --no-gravity           Disable gravity for bots
+              --block-report <path>  blocks.json data report of the server version, to know which blocks bots walk through
+              --skip-packets <list>  Comma separated packets bots skip decoding, ie: level.ClientboundLightUpdatePacket
+              --max-logins <amount>  Max bots logging in at the same time, no limit if not set
+              --verbose              Log a line per bot joining and leaving, not only summaries
+              --scripted             Run bots with an example script on virtual threads
+              --duration <seconds>   Stop after this many seconds, 0 = run until stopped (default 0)
+
+            Cluster:
+              --coordinator <port>   Run as coordinator, agents connect to this port
+              --agents <amount>      Amount of agents the coordinator waits for (default 1)
+              --agent <host:port>    Run as agent of the coordinator at this address""");
+    }
+
+}
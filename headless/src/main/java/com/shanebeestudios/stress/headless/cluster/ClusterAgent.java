@@ -0,0 +1,164 @@
+package com.shanebeestudios.stress.headless.cluster;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import com.shanebeestudios.stress.api.platform.HeadlessPlatform;
+import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent of a cluster, runs the bots assigned to it by the {@link ClusterCoordinator}
+ * <p>Each agent is its own JVM with its own {@link BotManager}, so ports, file descriptors
+ * and CPU are spread over multiple processes.</p>
+ */
+public class ClusterAgent {
+
+    private final String coordinatorHost;
+    private final int coordinatorPort;
+    private final int packetThreads;
+    private final boolean gravity;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "StressTestBots-Agent");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Bots in order of creation, the newest are removed first when the target drops
+    private final Deque<Bot> bots = new ArrayDeque<>();
+    private BotManager botManager;
+    private PrintWriter writer;
+    private int agentId;
+    private long joinDelay;
+    private int target;
+
+    /**
+     * Create a new agent
+     *
+     * @param coordinatorHost Host of the coordinator
+     * @param coordinatorPort Control port of the coordinator
+     * @param packetThreads   Packet threads for the bots of this agent (0 = available processors)
+     * @param gravity         Whether bots have gravity
+     */
+    public ClusterAgent(String coordinatorHost, int coordinatorPort, int packetThreads, boolean gravity) {
+        this.coordinatorHost = coordinatorHost;
+        this.coordinatorPort = coordinatorPort;
+        this.packetThreads = packetThreads;
+        this.gravity = gravity;
+    }
+
+    /**
+     * Connect to the coordinator and run until it stops this agent or the connection is lost
+     *
+     * @throws IOException If the coordinator could not be reached
+     */
+    public void run() throws IOException {
+        try (Socket socket = new Socket(this.coordinatorHost, this.coordinatorPort)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            send(ClusterProtocol.line(ClusterProtocol.HELLO, ProcessHandle.current().pid()));
+            Logger.info("Connected to coordinator at &b%s:%s", this.coordinatorHost, this.coordinatorPort);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] split = ClusterProtocol.split(line);
+                // Commands are handled on the agent thread so they never race each other
+                switch (split[0]) {
+                    case ClusterProtocol.ASSIGN -> this.executor.execute(() -> assign(split));
+                    case ClusterProtocol.START -> {
+                        long delay = Math.max(0, Long.parseLong(split[1]) - System.currentTimeMillis());
+                        this.executor.schedule(this::start, delay, TimeUnit.MILLISECONDS);
+                    }
+                    case ClusterProtocol.TARGET -> this.executor.execute(() -> setTarget(Integer.parseInt(split[1])));
+                    case ClusterProtocol.STOP -> {
+                        return;
+                    }
+                    default -> Logger.warn("Unknown command from coordinator: %s", line);
+                }
+            }
+            Logger.warn("Lost connection to coordinator");
+        } finally {
+            stop();
+        }
+    }
+
+    private void assign(String[] split) {
+        // ASSIGN <agent id> <server host> <server port> <bots> <join delay ms>
+        this.agentId = Integer.parseInt(split[1]);
+        this.target = Integer.parseInt(split[4]);
+        this.joinDelay = Long.parseLong(split[5]);
+        // Unique prefix per agent, so bots of different agents never share a name
+        this.botManager = new BotManager(3000, this.gravity, Utils.createInetAddress(split[2], Integer.parseInt(split[3])),
+            null, "a" + this.agentId + "_", this.packetThreads, new HeadlessPlatform());
+        Logger.info("Assigned agent id &b%s&7 with &b%s&7 bots", this.agentId, this.target);
+    }
+
+    private void start() {
+        Logger.info("Starting &b%s&7 bots", this.target);
+        adjustBots();
+        this.executor.scheduleAtFixedRate(this::sendMetrics, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private void setTarget(int target) {
+        Logger.info("Target changed from &b%s&7 to &b%s&7 bots", this.target, target);
+        this.target = target;
+        adjustBots();
+    }
+
+    private void adjustBots() {
+        // Bots that were kicked are gone from the registry
+        this.bots.removeIf(bot -> this.botManager.getRegistry().get(bot.getId()) != bot);
+        int delayIndex = 0;
+        while (this.bots.size() < this.target) {
+            Bot bot = this.botManager.createBot(null, this.joinDelay * delayIndex++ / 50);
+            if (bot != null) this.bots.addLast(bot);
+        }
+        while (this.bots.size() > this.target) {
+            this.botManager.disconnectBot(this.bots.removeLast());
+        }
+    }
+
+    private void sendMetrics() {
+        int connected = 0;
+        for (Bot bot : this.botManager.getRegistry().snapshot()) {
+            if (bot.isConnected()) connected++;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long heap = (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024;
+        Map<LatencyType, LatencyHistogram> histograms = new EnumMap<>(LatencyType.class);
+        for (LatencyType type : LatencyType.values()) {
+            histograms.put(type, this.botManager.getLatencyStats().get(type));
+        }
+        send(new ClusterProtocol.Metrics(this.target, connected, this.botManager.getScheduler().getAverageDrift(), heap, histograms).encode());
+    }
+
+    private void send(String line) {
+        synchronized (this.writer) {
+            this.writer.println(line);
+        }
+    }
+
+    private void stop() {
+        this.executor.shutdownNow();
+        if (this.botManager == null) return;
+        Logger.info("Stopping, disconnecting &b%s&7 bots", this.botManager.getRegistry().size());
+        this.botManager.getBots().forEach(this.botManager::disconnectBot);
+        this.botManager.shutdown();
+    }
+
+}
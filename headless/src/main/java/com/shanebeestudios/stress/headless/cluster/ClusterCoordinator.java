@@ -0,0 +1,358 @@
+package com.shanebeestudios.stress.headless.cluster;
+
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyStats;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import com.shanebeestudios.stress.api.util.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of a cluster, splits the bots over multiple {@link ClusterAgent agents}
+ * <p>Waits for all agents to connect, assigns each their share of bots and starts them at the same time.
+ * Metrics of all agents are merged, and bots of an agent that falls behind or is lost are moved to the others.
+ * Agents connecting later get an even share of the bots, taken from the running agents.</p>
+ */
+public class ClusterCoordinator {
+
+    // Time between status reports and rebalance checks
+    private static final long CHECK_INTERVAL = 5000;
+    // Agents start this long after being assigned, so all of them start at the same time
+    private static final long START_DELAY = 2000;
+    // Time an agent gets on top of its join delays before it is considered behind
+    private static final long RAMP_GRACE = 15000;
+    // An agent without metrics for this long is considered lost
+    private static final long METRICS_TIMEOUT = 10000;
+    // An agent is behind when less than this part of its bots are connected
+    private static final double BEHIND_RATIO = 0.9;
+
+    private final int controlPort;
+    private final int agentCount;
+    private final String serverHost;
+    private final int serverPort;
+    private final int bots;
+    private final long joinDelay;
+    private final List<AgentHandle> agents = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextAgentId = new AtomicInteger();
+    private volatile boolean running = true;
+    // Bots taken from agents that no healthy agent could take yet
+    private int unassigned;
+
+    /**
+     * Create a new coordinator
+     *
+     * @param controlPort Port agents connect to
+     * @param agentCount  Amount of agents to wait for before starting
+     * @param serverHost  Host of the server to test
+     * @param serverPort  Port of the server to test
+     * @param bots        Total amount of bots over all agents
+     * @param joinDelay   Delay between joins on each agent in milliseconds
+     */
+    public ClusterCoordinator(int controlPort, int agentCount, String serverHost, int serverPort, int bots, long joinDelay) {
+        this.controlPort = controlPort;
+        this.agentCount = agentCount;
+        this.serverHost = serverHost;
+        this.serverPort = serverPort;
+        this.bots = bots;
+        this.joinDelay = joinDelay;
+    }
+
+    /**
+     * Wait for all agents, start them and report until stopped
+     *
+     * @throws IOException          If the control port could not be opened
+     * @throws InterruptedException If interrupted while running
+     */
+    public void run() throws IOException, InterruptedException {
+        try (ServerSocket serverSocket = new ServerSocket(this.controlPort)) {
+            Logger.info("Waiting for &b%s&7 agents on port &b%s", this.agentCount, this.controlPort);
+            while (this.agents.size() < this.agentCount) {
+                addAgent(serverSocket.accept());
+            }
+            start();
+            // Agents connecting from now on join with the next rebalance
+            Thread.ofPlatform().daemon().name("StressTestBots-Accept").start(() -> acceptLate(serverSocket));
+            while (this.running) {
+                Thread.sleep(CHECK_INTERVAL);
+                rebalance();
+                logStats();
+            }
+        }
+    }
+
+    private void acceptLate(ServerSocket serverSocket) {
+        try {
+            while (this.running) {
+                addAgent(serverSocket.accept());
+            }
+        } catch (IOException e) {
+            // Control port closed once the coordinator stops
+            if (this.running) Logger.warn("Stopped accepting agents: %s", e.getMessage());
+        }
+    }
+
+    // Package private for tests
+    void addAgent(Socket socket) throws IOException {
+        AgentHandle agent = new AgentHandle(this.nextAgentId.incrementAndGet(), socket);
+        this.agents.add(agent);
+        Thread.ofPlatform().daemon().name("StressTestBots-Agent-" + agent.id).start(agent::read);
+        Logger.info("Agent &b%s&7 connected from &b%s", agent.id, socket.getRemoteSocketAddress());
+    }
+
+    // Package private for tests
+    void start() {
+        long startTime = System.currentTimeMillis() + START_DELAY;
+        int[] shares = split(this.bots, this.agents.size());
+        for (int i = 0; i < shares.length; i++) {
+            assign(this.agents.get(i), shares[i], startTime);
+        }
+        for (int i = 0; i < shares.length; i++) {
+            this.agents.get(i).send(ClusterProtocol.line(ClusterProtocol.START, startTime));
+        }
+        Logger.info("Starting &b%s&7 bots over &b%s&7 agents", this.bots, shares.length);
+    }
+
+    private void assign(AgentHandle agent, int share, long startTime) {
+        agent.assigned = true;
+        agent.target = share;
+        agent.rampDeadline = startTime + share * this.joinDelay + RAMP_GRACE;
+        agent.lastReport = startTime;
+        agent.send(ClusterProtocol.line(ClusterProtocol.ASSIGN, agent.id, this.serverHost, this.serverPort, share, this.joinDelay));
+    }
+
+    // Package private for tests
+    // Split evenly, the first parts take the remainder
+    static int[] split(int bots, int parts) {
+        int[] shares = new int[parts];
+        for (int i = 0; i < parts; i++) {
+            shares[i] = bots / parts + (i < bots % parts ? 1 : 0);
+        }
+        return shares;
+    }
+
+    // Package private for tests
+    // Connected bots of all agents still alive, as last reported
+    int getConnected() {
+        int connected = 0;
+        for (AgentHandle agent : this.agents) {
+            if (agent.alive) connected += agent.connected;
+        }
+        return connected;
+    }
+
+    // Package private for tests
+    // Targets of all agents still alive, in order of connecting
+    List<Integer> getTargets() {
+        List<Integer> targets = new ArrayList<>();
+        for (AgentHandle agent : this.agents) {
+            if (agent.alive) targets.add(agent.target);
+        }
+        return targets;
+    }
+
+    /**
+     * Stop all agents
+     */
+    public void stop() {
+        this.running = false;
+        for (AgentHandle agent : this.agents) {
+            agent.send(ClusterProtocol.STOP);
+            agent.close();
+        }
+    }
+
+    // Package private for tests
+    void rebalance() {
+        long now = System.currentTimeMillis();
+        List<AgentHandle> healthy = new ArrayList<>();
+        // Agents keeping their bots this round, healthy or still ramping up
+        List<AgentHandle> active = new ArrayList<>();
+        List<AgentHandle> joined = new ArrayList<>();
+        int moving = this.unassigned;
+        for (AgentHandle agent : this.agents) {
+            if (!agent.assigned) {
+                if (agent.alive) joined.add(agent);
+                continue;
+            }
+            if (!agent.alive && agent.target == 0) continue;
+            if (!agent.alive || now - agent.lastReport > METRICS_TIMEOUT) {
+                // Lost or not reporting, take all its bots
+                Logger.warn("Agent &b%s&7 is lost, moving its &b%s&7 bots", agent.id, agent.target);
+                moving += agent.target;
+                agent.target = 0;
+                agent.close();
+                continue;
+            }
+            boolean stuck = agent.connected <= agent.lastCheckConnected;
+            agent.lastCheckConnected = agent.connected;
+            if (now > agent.rampDeadline && stuck && agent.connected < agent.target * BEHIND_RATIO) {
+                // Keep what it managed to connect, the rest moves
+                int behind = agent.target - agent.connected;
+                Logger.warn("Agent &b%s&7 is behind (&b%s&7/&b%s&7 bots, drift &e%.1fms&7), moving &b%s&7 bots",
+                    agent.id, agent.connected, agent.target, agent.drift, behind);
+                moving += behind;
+                agent.target = agent.connected;
+                agent.send(ClusterProtocol.line(ClusterProtocol.TARGET, agent.target));
+                continue;
+            }
+            active.add(agent);
+            if (agent.connected >= agent.target * BEHIND_RATIO) healthy.add(agent);
+        }
+        if (!joined.isEmpty()) {
+            join(joined, active, moving, now);
+            return;
+        }
+        if (moving == 0) return;
+        if (healthy.isEmpty()) {
+            Logger.warn("No healthy agents, &b%s&7 bots wait to be moved", moving);
+            this.unassigned = moving;
+            return;
+        }
+        this.unassigned = 0;
+        int[] extras = split(moving, healthy.size());
+        for (int i = 0; i < extras.length; i++) {
+            AgentHandle agent = healthy.get(i);
+            if (extras[i] == 0) continue;
+            agent.target += extras[i];
+            agent.rampDeadline = now + extras[i] * this.joinDelay + RAMP_GRACE;
+            agent.send(ClusterProtocol.line(ClusterProtocol.TARGET, agent.target));
+        }
+    }
+
+    // Split the bots of the active agents and the moving bots evenly over the active and joined agents
+    private void join(List<AgentHandle> joined, List<AgentHandle> active, int moving, long now) {
+        int total = moving;
+        for (AgentHandle agent : active) {
+            total += agent.target;
+        }
+        List<AgentHandle> all = new ArrayList<>(active);
+        all.addAll(joined);
+        int[] shares = split(total, all.size());
+        Logger.info("&b%s&7 agents joined, splitting &b%s&7 bots over &b%s&7 agents", joined.size(), total, all.size());
+        for (int i = 0; i < active.size(); i++) {
+            AgentHandle agent = active.get(i);
+            if (shares[i] == agent.target) continue;
+            if (shares[i] > agent.target) agent.rampDeadline = now + (shares[i] - agent.target) * this.joinDelay + RAMP_GRACE;
+            agent.target = shares[i];
+            agent.send(ClusterProtocol.line(ClusterProtocol.TARGET, agent.target));
+        }
+        for (int i = active.size(); i < all.size(); i++) {
+            AgentHandle agent = all.get(i);
+            assign(agent, shares[i], now);
+            agent.send(ClusterProtocol.line(ClusterProtocol.START, now));
+        }
+        this.unassigned = 0;
+    }
+
+    private void logStats() {
+        LatencyStats merged = new LatencyStats();
+        int target = 0;
+        int connected = 0;
+        long heap = 0;
+        double maxDrift = 0;
+        int alive = 0;
+        for (AgentHandle agent : this.agents) {
+            if (!agent.alive) continue;
+            alive++;
+            target += agent.target;
+            connected += agent.connected;
+            heap += agent.heap;
+            maxDrift = Math.max(maxDrift, agent.drift);
+            synchronized (agent.histograms) {
+                for (Map.Entry<LatencyType, LatencyHistogram> entry : agent.histograms.entrySet()) {
+                    merged.get(entry.getKey()).merge(entry.getValue());
+                }
+            }
+        }
+        Logger.info("Cluster: &b%s&7 agents, &b%s&7 connected of &b%s&7, heap &b%sMB&7, max drift &e%.1fms",
+            alive, connected, target, heap, maxDrift);
+        for (LatencyType type : LatencyType.values()) {
+            LatencyHistogram histogram = merged.get(type);
+            if (histogram.getCount() == 0) continue;
+            Logger.info("- %s: &b%s&7 samples, p50 &e%.1fms&7, p99 &e%.1fms&7, p999 &e%.1fms",
+                type.name().toLowerCase(), histogram.getCount(), histogram.getPercentile(0.5),
+                histogram.getPercentile(0.99), histogram.getPercentile(0.999));
+        }
+    }
+
+    private static class AgentHandle {
+
+        private final int id;
+        private final Socket socket;
+        private final PrintWriter writer;
+        private final Map<LatencyType, LatencyHistogram> histograms = new EnumMap<>(LatencyType.class);
+        private volatile boolean alive = true;
+        private volatile long lastReport = System.currentTimeMillis();
+        private volatile int connected;
+        private volatile double drift;
+        private volatile long heap;
+        // Only touched by the coordinator thread
+        private boolean assigned;
+        private int target;
+        private int lastCheckConnected;
+        private long rampDeadline;
+
+        private AgentHandle(int id, Socket socket) throws IOException {
+            this.id = id;
+            this.socket = socket;
+            this.socket.setTcpNoDelay(true);
+            this.writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] split = ClusterProtocol.split(line);
+                    if (split[0].equals(ClusterProtocol.METRICS)) {
+                        readMetrics(ClusterProtocol.Metrics.decode(split));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (this.alive) Logger.warn("Agent &b%s&7 failed: %s", this.id, e.getMessage());
+            }
+            if (this.alive) Logger.warn("Agent &b%s&7 disconnected", this.id);
+            this.alive = false;
+        }
+
+        private void readMetrics(ClusterProtocol.Metrics metrics) {
+            this.connected = metrics.connected();
+            this.drift = metrics.drift();
+            this.heap = metrics.heap();
+            // Agents send their whole histogram, the newest replaces the old one
+            synchronized (this.histograms) {
+                this.histograms.putAll(metrics.histograms());
+            }
+            this.lastReport = System.currentTimeMillis();
+        }
+
+        private void send(String line) {
+            if (!this.alive) return;
+            synchronized (this.writer) {
+                this.writer.println(line);
+            }
+        }
+
+        private void close() {
+            this.alive = false;
+            try {
+                this.socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+
+    }
+
+}
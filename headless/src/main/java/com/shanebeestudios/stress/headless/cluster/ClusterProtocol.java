@@ -0,0 +1,124 @@
+package com.shanebeestudios.stress.headless.cluster;
+
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Commands of the line based control protocol between coordinator and agents
+ * <p>Every line is a command followed by space separated arguments, see {@link #line(String, Object...)}.</p>
+ */
+public final class ClusterProtocol {
+
+    /**
+     * Agent to coordinator, first line after connecting: {@code HELLO <pid>}
+     */
+    public static final String HELLO = "HELLO";
+    /**
+     * Coordinator to agent: {@code ASSIGN <agent id> <server host> <server port> <bots> <join delay ms>}
+     */
+    public static final String ASSIGN = "ASSIGN";
+    /**
+     * Coordinator to agent, start connecting bots at a wall clock time: {@code START <epoch ms>}
+     */
+    public static final String START = "START";
+    /**
+     * Coordinator to agent, change the amount of bots: {@code TARGET <bots>}
+     */
+    public static final String TARGET = "TARGET";
+    /**
+     * Coordinator to agent, disconnect all bots and exit: {@code STOP}
+     */
+    public static final String STOP = "STOP";
+    /**
+     * Agent to coordinator, every second: {@code METRICS <target> <connected> <drift ms> <heap mb> <type>=<histogram>...}
+     */
+    public static final String METRICS = "METRICS";
+
+    private ClusterProtocol() {
+    }
+
+    /**
+     * Create a line of a command with its arguments
+     *
+     * @param command   Command of line
+     * @param arguments Arguments of command, must not contain spaces or line breaks
+     * @return Line to send, without line break
+     */
+    public static String line(String command, Object... arguments) {
+        StringBuilder builder = new StringBuilder(command);
+        for (Object argument : arguments) {
+            String string = String.valueOf(argument);
+            // Would split into more arguments or lines on the other side
+            if (string.isEmpty() || string.indexOf(' ') >= 0 || string.indexOf('\n') >= 0 || string.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Invalid argument for " + command + ": '" + string + "'");
+            }
+            builder.append(' ').append(string);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Split a received line into its command and arguments
+     *
+     * @param line Line without line break
+     * @return Command followed by its arguments
+     */
+    public static String[] split(String line) {
+        return line.split(" ");
+    }
+
+    /**
+     * Metrics an agent reports every second
+     *
+     * @param target     Amount of bots the agent should have
+     * @param connected  Amount of connected bots
+     * @param drift      Average scheduler drift in milliseconds
+     * @param heap       Used heap in MB
+     * @param histograms Latency histograms of the agent
+     */
+    public record Metrics(int target, int connected, double drift, long heap, Map<LatencyType, LatencyHistogram> histograms) {
+
+        /**
+         * Create the {@link #METRICS} line of these metrics
+         *
+         * @return Line to send
+         */
+        public String encode() {
+            Object[] arguments = new Object[4 + this.histograms.size()];
+            arguments[0] = this.target;
+            arguments[1] = this.connected;
+            arguments[2] = String.format(Locale.ROOT, "%.2f", this.drift);
+            arguments[3] = this.heap;
+            int i = 4;
+            for (Map.Entry<LatencyType, LatencyHistogram> entry : this.histograms.entrySet()) {
+                arguments[i++] = entry.getKey().name() + "=" + entry.getValue().encode();
+            }
+            return line(METRICS, arguments);
+        }
+
+        /**
+         * Read metrics from a split {@link #METRICS} line
+         *
+         * @param split Split line, see {@link #split(String)}
+         * @return Metrics of line
+         * @throws IllegalArgumentException If the line is not valid
+         */
+        public static Metrics decode(String[] split) {
+            if (split.length < 5 || !split[0].equals(METRICS)) throw new IllegalArgumentException("Not a metrics line");
+            Map<LatencyType, LatencyHistogram> histograms = new EnumMap<>(LatencyType.class);
+            for (int i = 5; i < split.length; i++) {
+                int equals = split[i].indexOf('=');
+                if (equals < 0) throw new IllegalArgumentException("Invalid histogram: " + split[i]);
+                histograms.put(LatencyType.valueOf(split[i].substring(0, equals)), LatencyHistogram.decode(split[i].substring(equals + 1)));
+            }
+            return new Metrics(Integer.parseInt(split[1]), Integer.parseInt(split[2]), Double.parseDouble(split[3]),
+                Long.parseLong(split[4]), histograms);
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.shanebeestudios.stress.headless.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterCoordinatorTest {
+
+    private ServerSocket serverSocket;
+    private ClusterCoordinator coordinator;
+    private final List<FakeAgent> agents = new ArrayList<>();
+
+    @BeforeEach
+    void setup() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        // No join delay, so no agent counts as behind while the test runs
+        this.coordinator = new ClusterCoordinator(0, 3, "127.0.0.1", 25565, 10, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.coordinator.stop();
+        for (FakeAgent agent : this.agents) {
+            agent.socket.close();
+        }
+        this.serverSocket.close();
+    }
+
+    @Test
+    void splitsEvenly() {
+        assertArrayEquals(new int[]{4, 3, 3}, ClusterCoordinator.split(10, 3));
+        assertArrayEquals(new int[]{3, 3, 2, 2}, ClusterCoordinator.split(10, 4));
+        assertArrayEquals(new int[]{0, 0}, ClusterCoordinator.split(0, 2));
+    }
+
+    @Test
+    void startAssignsShares() throws IOException {
+        connectAgents(3);
+        this.coordinator.start();
+        assertEquals(List.of(4, 3, 3), this.coordinator.getTargets());
+        for (int i = 0; i < 3; i++) {
+            String[] assign = this.agents.get(i).read(ClusterProtocol.ASSIGN);
+            assertEquals(String.valueOf(i + 1), assign[1]);
+            assertEquals(String.valueOf(List.of(4, 3, 3).get(i)), assign[4]);
+            this.agents.get(i).read(ClusterProtocol.START);
+        }
+    }
+
+    @Test
+    void resplitsWhenAgentJoins() throws IOException {
+        connectAgents(3);
+        this.coordinator.start();
+
+        FakeAgent late = connectAgents(1).getFirst();
+        this.coordinator.rebalance();
+        assertEquals(List.of(3, 3, 2, 2), this.coordinator.getTargets());
+        assertEquals("2", late.read(ClusterProtocol.ASSIGN)[4]);
+        late.read(ClusterProtocol.START);
+        // Running agents hand over their newest bots
+        assertEquals("3", this.agents.get(0).read(ClusterProtocol.TARGET)[1]);
+        assertEquals("2", this.agents.get(2).read(ClusterProtocol.TARGET)[1]);
+
+        // Joined agents are assigned once
+        this.coordinator.rebalance();
+        assertEquals(List.of(3, 3, 2, 2), this.coordinator.getTargets());
+    }
+
+    @Test
+    void resplitsWhenAgentLeaves() throws IOException {
+        connectAgents(3);
+        this.coordinator.start();
+        // All bots of the first two agents are connected, so they can take more
+        this.agents.get(0).sendMetrics(4, 4);
+        this.agents.get(1).sendMetrics(3, 3);
+        await(() -> this.coordinator.getConnected() == 7);
+
+        this.agents.get(2).socket.close();
+        await(() -> this.coordinator.getTargets().size() == 2);
+        this.coordinator.rebalance();
+        assertEquals(List.of(6, 4), this.coordinator.getTargets());
+        assertEquals("6", this.agents.get(0).read(ClusterProtocol.TARGET)[1]);
+        assertEquals("4", this.agents.get(1).read(ClusterProtocol.TARGET)[1]);
+    }
+
+    private List<FakeAgent> connectAgents(int amount) throws IOException {
+        List<FakeAgent> connected = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            Socket socket = new Socket(this.serverSocket.getInetAddress(), this.serverSocket.getLocalPort());
+            this.coordinator.addAgent(this.serverSocket.accept());
+            FakeAgent agent = new FakeAgent(socket);
+            this.agents.add(agent);
+            connected.add(agent);
+        }
+        return connected;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static class FakeAgent {
+
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final PrintWriter writer;
+
+        private FakeAgent(Socket socket) throws IOException {
+            this.socket = socket;
+            this.socket.setSoTimeout(5000);
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        // Read lines until one of the command, fails if the coordinator sends none
+        private String[] read(String command) throws IOException {
+            String line;
+            while ((line = this.reader.readLine()) != null) {
+                String[] split = ClusterProtocol.split(line);
+                if (split[0].equals(command)) return split;
+            }
+            throw new IOException("No " + command + " received");
+        }
+
+        private void sendMetrics(int target, int connected) {
+            this.writer.println(new ClusterProtocol.Metrics(target, connected, 0, 0, Map.of()).encode());
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.shanebeestudios.stress.headless.cluster;
+
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClusterProtocolTest {
+
+    @Test
+    void lineRoundTrip() {
+        String line = ClusterProtocol.line(ClusterProtocol.ASSIGN, 2, "127.0.0.1", 25565, 100, 50L);
+        assertEquals("ASSIGN 2 127.0.0.1 25565 100 50", line);
+        assertArrayEquals(new String[]{"ASSIGN", "2", "127.0.0.1", "25565", "100", "50"}, ClusterProtocol.split(line));
+        assertArrayEquals(new String[]{"STOP"}, ClusterProtocol.split(ClusterProtocol.line(ClusterProtocol.STOP)));
+    }
+
+    @Test
+    void argumentsCannotBreakFraming() {
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.line(ClusterProtocol.ASSIGN, "two words"));
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.line(ClusterProtocol.ASSIGN, "two\nlines"));
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.line(ClusterProtocol.ASSIGN, ""));
+    }
+
+    @Test
+    void metricsRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        histogram.record(5, TimeUnit.MILLISECONDS);
+        histogram.record(120, TimeUnit.MILLISECONDS);
+        Map<LatencyType, LatencyHistogram> histograms = new EnumMap<>(LatencyType.class);
+        histograms.put(LatencyType.LOGIN, histogram);
+        histograms.put(LatencyType.PING, new LatencyHistogram(3));
+        ClusterProtocol.Metrics metrics = new ClusterProtocol.Metrics(250, 240, 1.25, 512, histograms);
+
+        ClusterProtocol.Metrics decoded = ClusterProtocol.Metrics.decode(ClusterProtocol.split(metrics.encode()));
+        assertEquals(250, decoded.target());
+        assertEquals(240, decoded.connected());
+        assertEquals(1.25, decoded.drift());
+        assertEquals(512, decoded.heap());
+        assertEquals(histograms.keySet(), decoded.histograms().keySet());
+        LatencyHistogram login = decoded.histograms().get(LatencyType.LOGIN);
+        assertEquals(2, login.getCount());
+        assertEquals(histogram.getPercentile(0.5), login.getPercentile(0.5));
+        assertEquals(histogram.getPercentile(0.99), login.getPercentile(0.99));
+        assertEquals(0, decoded.histograms().get(LatencyType.PING).getCount());
+    }
+
+    @Test
+    void invalidMetricsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.Metrics.decode(ClusterProtocol.split("METRICS 1 2")));
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.Metrics.decode(ClusterProtocol.split("TARGET 1 2 3 4")));
+        assertThrows(IllegalArgumentException.class, () -> ClusterProtocol.Metrics.decode(ClusterProtocol.split("METRICS 1 2 3 4 LOGIN")));
+    }
+
+}
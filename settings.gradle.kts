@@ -0,0 +1,6 @@
+rootProject.name = "StressTestBots"
+
+// Bot api, without Bukkit
+include("api")
+// Standalone load generator, runs bots without a server
+include("headless")
@@ -0,0 +1,36 @@
+package com.shanebeestudios.stress;
+
+import com.shanebeestudios.stress.api.util.LogHandler;
+import net.md_5.bungee.api.ChatColor;
+import org.bukkit.Bukkit;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @hidden
+ */
+public class BukkitLogHandler implements LogHandler {
+
+    private static final Pattern HEX_PATTERN = Pattern.compile("<#([A-Fa-f\\d]){6}>");
+
+    @Override
+    public void log(String message) {
+        Bukkit.getConsoleSender().sendMessage(colorize(message));
+    }
+
+    @SuppressWarnings("deprecation") // Paper deprecation
+    @Override
+    public String colorize(String string) {
+        Matcher matcher = HEX_PATTERN.matcher(string);
+        while (matcher.find()) {
+            final ChatColor hexColor = ChatColor.of(matcher.group().substring(1, matcher.group().length() - 1));
+            final String before = string.substring(0, matcher.start());
+            final String after = string.substring(matcher.end());
+            string = before + hexColor + after;
+            matcher = HEX_PATTERN.matcher(string);
+        }
+        return ChatColor.translateAlternateColorCodes('&', string);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.shanebeestudios.stress;
+
+import com.shanebeestudios.stress.api.bot.Bot;
+import com.shanebeestudios.stress.api.event.BotCreateEvent;
+import com.shanebeestudios.stress.api.event.BotDisconnectEvent;
+import com.shanebeestudios.stress.api.platform.BotPlatform;
+import com.shanebeestudios.stress.api.server.MainThreadBridge;
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @hidden
+ */
+public class BukkitPlatform implements BotPlatform {
+
+    private final MainThreadBridge mainThreadBridge;
+
+    public BukkitPlatform(MainThreadBridge mainThreadBridge) {
+        this.mainThreadBridge = mainThreadBridge;
+    }
+
+    public MainThreadBridge getMainThreadBridge() {
+        return this.mainThreadBridge;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPlayerOnline(String name) {
+        // Completes right away on the main thread
+        return this.mainThreadBridge.query(() -> Bukkit.getPlayerExact(name) != null);
+    }
+
+    @Override
+    public void botCreated(Bot bot) {
+        // Bukkit events have to be called on the main thread
+        this.mainThreadBridge.run(() -> new BotCreateEvent(bot).callEvent());
+    }
+
+    @Override
+    public void botDisconnected(Bot bot) {
+        this.mainThreadBridge.run(() -> new BotDisconnectEvent(bot).callEvent());
+    }
+
+}
@@ -1,27 +1,79 @@
 package com.shanebeestudios.stress;
 
+import com.shanebeestudios.stress.api.behaviour.BotBehaviour;
+import com.shanebeestudios.stress.api.behaviour.FollowBehaviour;
+import com.shanebeestudios.stress.api.behaviour.OrbitBehaviour;
+import com.shanebeestudios.stress.api.behaviour.RandomWalkBehaviour;
 import com.shanebeestudios.stress.api.bot.Bot;
 import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.chat.ChatTemplate;
+import com.shanebeestudios.stress.api.chat.ChatWorkload;
+import com.shanebeestudios.stress.api.churn.ChurnWorkload;
+import com.shanebeestudios.stress.api.churn.SessionLength;
+import com.shanebeestudios.stress.api.metrics.LatencyHistogram;
+import com.shanebeestudios.stress.api.metrics.LatencyStats;
+import com.shanebeestudios.stress.api.metrics.LatencyType;
+import com.shanebeestudios.stress.api.network.LoginFailure;
+import com.shanebeestudios.stress.api.network.LoginPipeline;
+import com.shanebeestudios.stress.api.network.PacketExecutorPool;
+import com.shanebeestudios.stress.api.network.PacketFilter;
+import com.shanebeestudios.stress.api.ramp.RampController;
+import com.shanebeestudios.stress.api.ramp.RampProfile;
+import com.shanebeestudios.stress.api.server.MainThreadBridge;
+import com.shanebeestudios.stress.api.server.RunSession;
+import com.shanebeestudios.stress.api.timer.BotScheduler;
+import com.shanebeestudios.stress.api.trace.Trace;
+import com.shanebeestudios.stress.api.trace.TraceReplayBehaviour;
 import com.shanebeestudios.stress.api.util.Logger;
 import dev.jorel.commandapi.CommandTree;
+import dev.jorel.commandapi.arguments.BooleanArgument;
+import dev.jorel.commandapi.arguments.DoubleArgument;
 import dev.jorel.commandapi.arguments.EntitySelectorArgument;
 import dev.jorel.commandapi.arguments.GreedyStringArgument;
 import dev.jorel.commandapi.arguments.IntegerArgument;
 import dev.jorel.commandapi.arguments.LiteralArgument;
 import dev.jorel.commandapi.arguments.StringArgument;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.cloudburstmc.math.vector.Vector3d;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @hidden
  */
 public class Command {
 
+    private final StressTestBots plugin;
     private final BotManager botManager;
+    private final Map<UUID, Supplier<Vector3d>> playerTrackers = new ConcurrentHashMap<>();
+    private RunSession runSession;
+    private RampController rampController;
+    private TraceRecorder traceRecorder;
+    private ChatWorkload chatWorkload;
+    private ChurnWorkload churnWorkload;
 
     public Command(StressTestBots plugin) {
+        this.plugin = plugin;
         this.botManager = plugin.getBotManager();
         registerCommand();
     }
@@ -35,12 +87,226 @@ public class Command {
                         Collection<Entity> players = (Collection<Entity>) args.get("players");
                         assert players != null;
                         players.forEach(player -> {
-                            Bot bot = this.botManager.findBotByName(player.getName());
+                            Bot bot = this.botManager.findBot(player.getUniqueId(), player.getName());
                             if (bot != null) {
-                                Logger.logToSender(sender, "BotInfo: &7'" + bot);
+                                logToSender(sender, "BotInfo: &7'" + bot);
                             }
                         });
                     })))
+            // Show stats of the bot threads
+            .then(new LiteralArgument("stats")
+                .executes((sender, args) -> {
+                    PacketExecutorPool pool = this.botManager.getPacketExecutorPool();
+                    double[] utilisation = pool.getUtilisation();
+                    int[] queueSizes = pool.getQueueSizes();
+                    logToSender(sender, "Bots: &b%s&7, packet threads: &b%s", this.botManager.getBots().size(), pool.getThreadCount());
+                    for (int i = 0; i < utilisation.length; i++) {
+                        logToSender(sender, "- Thread &b%s&7: &e%.1f%%&7 busy, &e%s&7 queued", i, utilisation[i] * 100, queueSizes[i]);
+                    }
+                    BotScheduler scheduler = this.botManager.getScheduler();
+                    logToSender(sender, "Scheduler: &b%s&7 tasks, drift &e%.2fms&7 (avg &e%.2fms&7, max &e%.2fms&7)",
+                        scheduler.getPendingTasks(), scheduler.getLastDrift(), scheduler.getAverageDrift(), scheduler.getMaxDrift());
+                    logToSender(sender, "Gravity tick: &e%.2fms", this.botManager.getGravityTimer().getLastTickTime());
+                    MainThreadBridge bridge = this.plugin.getMainThreadBridge();
+                    logToSender(sender, "Main thread bridge: &b%s&7 queued, &b%s&7 last tick, cost &e%.2fms&7 (avg &e%.2fms&7)",
+                        bridge.getQueueDepth(), bridge.getLastTickCompleted(), bridge.getLastTickCost(), bridge.getAverageTickCost());
+                    LoginPipeline pipeline = this.botManager.getLoginPipeline();
+                    logToSender(sender, "Logins: &b%s&7 in flight (max &b%s&7), &b%s&7 queued, &b%s&7 joined, failed: &e%s&7 throttled, &e%s&7 timed out, &e%s&7 kicked, &e%s&7 refused",
+                        pipeline.getInFlight(), pipeline.getMaxInFlight(), pipeline.getQueued(), pipeline.getJoined(),
+                        pipeline.getFailures(LoginFailure.THROTTLED), pipeline.getFailures(LoginFailure.TIMED_OUT),
+                        pipeline.getFailures(LoginFailure.KICKED), pipeline.getFailures(LoginFailure.REFUSED));
+                    PacketFilter packetFilter = this.botManager.getPacketFilter();
+                    if (packetFilter != null) {
+                        logToSender(sender, "Skipped packets: &b%s&7, &b%sKB&7 of &b%sKB&7 received",
+                            packetFilter.getSkippedPackets(), packetFilter.getSkippedBytes() / 1024, packetFilter.getTotalBytes() / 1024);
+                    }
+                }))
+            // Toggle a log line per bot event, summaries are always logged
+            .then(new LiteralArgument("verbose")
+                .then(new BooleanArgument("enabled")
+                    .executes((sender, args) -> {
+                        boolean verbose = (boolean) args.getOrDefault("enabled", false);
+                        this.botManager.getLifecycleLog().setVerbose(verbose);
+                        logToSender(sender, "Verbose bot logging %s", verbose ? "&aenabled" : "&cdisabled");
+                    })))
+            // Show latencies measured by bots
+            .then(new LiteralArgument("latency")
+                .executes((sender, args) -> {
+                    logToSender(sender, "Latency of all bots:");
+                    logLatency(sender, this.botManager.getLatencyStats());
+                })
+                .then(new EntitySelectorArgument.ManyPlayers("players")
+                    .executes((sender, args) -> {
+                        Collection<Entity> players = (Collection<Entity>) args.get("players");
+                        assert players != null;
+                        players.forEach(player -> {
+                            Bot bot = this.botManager.findBot(player.getUniqueId(), player.getName());
+                            if (bot != null) {
+                                logToSender(sender, "Latency of '&b%s&7':", bot.getNickname());
+                                logLatency(sender, bot.getLatencyStats());
+                            }
+                        });
+                    })))
+            // Ramp bots up and down following a profile
+            .then(new LiteralArgument("ramp")
+                .withPermission("stresstestbots.command.ramp")
+                .then(new LiteralArgument("linear")
+                    .then(new IntegerArgument("bots", 1)
+                        .then(new IntegerArgument("seconds", 1)
+                            .executes((sender, args) -> {
+                                int bots = (int) args.get("bots");
+                                startRamp(sender, RampProfile.linear(this.botManager.getRegistry().size(), bots, (int) args.get("seconds")));
+                            }))))
+                .then(new LiteralArgument("step")
+                    .then(new IntegerArgument("step", 1)
+                        .then(new IntegerArgument("seconds", 1)
+                            .then(new IntegerArgument("max", 1)
+                                .executes((sender, args) -> {
+                                    startRamp(sender, RampProfile.step((int) args.get("step"), (int) args.get("seconds"), (int) args.get("max")));
+                                })))))
+                .then(new LiteralArgument("spike")
+                    .then(new IntegerArgument("base", 0)
+                        .then(new IntegerArgument("spike", 1)
+                            .then(new IntegerArgument("spike-seconds", 1)
+                                .then(new IntegerArgument("seconds", 1)
+                                    .executes((sender, args) -> {
+                                        startRamp(sender, RampProfile.spike((int) args.get("base"), (int) args.get("spike"),
+                                            (int) args.get("spike-seconds"), (int) args.get("seconds")));
+                                    }))))))
+                .then(new LiteralArgument("soak")
+                    .then(new IntegerArgument("bots", 1)
+                        .then(new IntegerArgument("seconds", 1)
+                            .executes((sender, args) -> {
+                                startRamp(sender, RampProfile.soak((int) args.get("bots"), (int) args.get("seconds")));
+                            }))))
+                .then(new LiteralArgument("mspt")
+                    .then(new DoubleArgument("target-mspt", 1)
+                        .then(new IntegerArgument("max-bots", 1)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                int maxBots = (int) args.getOrDefault("max-bots", Integer.MAX_VALUE);
+                                startRamp(sender, RampProfile.closedLoop((double) args.get("target-mspt"), maxBots));
+                            }))))
+                .then(new LiteralArgument("tps")
+                    .then(new DoubleArgument("target-tps", 1, 20)
+                        .then(new IntegerArgument("max-bots", 1)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                int maxBots = (int) args.getOrDefault("max-bots", Integer.MAX_VALUE);
+                                // Holding a TPS means keeping each tick under its share of a second
+                                startRamp(sender, RampProfile.closedLoop(1000 / (double) args.get("target-tps"), maxBots));
+                            }))))
+                .then(new LiteralArgument("status")
+                    .executes((sender, args) -> {
+                        RampController ramp = this.rampController;
+                        if (ramp == null) {
+                            logToSender(sender, "&cNo ramp was started!");
+                            return;
+                        }
+                        logToSender(sender, "Ramp %s&7: target &b%s&7 bots, MSPT &e%.2f&7, max sustainable &b%s",
+                            ramp.isRunning() ? "&arunning" : "&cfinished", ramp.getTarget(), ramp.getLastMspt(), ramp.getMaxSustainable());
+                    }))
+                .then(new LiteralArgument("stop")
+                    .executes((sender, args) -> {
+                        RampController ramp = this.rampController;
+                        if (ramp == null || !ramp.isRunning()) {
+                            logToSender(sender, "&cNo ramp is running!");
+                            return;
+                        }
+                        ramp.stop();
+                        logToSender(sender, "Stopped ramp, max sustainable bots: &b%s", ramp.getMaxSustainable());
+                    })))
+            // Record server health during a stress run
+            .then(new LiteralArgument("run")
+                .withPermission("stresstestbots.command.run")
+                .then(new LiteralArgument("start")
+                    .then(new IntegerArgument("minutes", 1)
+                        .setOptional(true)
+                        .executes((sender, args) -> {
+                            if (this.runSession != null && this.runSession.isRunning()) {
+                                logToSender(sender, "&cA run is already recording!");
+                                return;
+                            }
+                            int minutes = (int) args.getOrDefault("minutes", 60);
+                            this.runSession = new RunSession(this.botManager, minutes * 60 * 20);
+                            this.runSession.start(this.plugin);
+                            logToSender(sender, "Started recording run, keeping the last &b%s&7 minutes", minutes);
+                        })))
+                .then(new LiteralArgument("status")
+                    .executes((sender, args) -> {
+                        if (this.runSession == null) {
+                            logToSender(sender, "&cNo run was recorded!");
+                            return;
+                        }
+                        logRunSummary(sender, this.runSession.getSummary());
+                    }))
+                .then(new LiteralArgument("stop")
+                    .executes((sender, args) -> {
+                        RunSession session = this.runSession;
+                        if (session == null || !session.isRunning()) {
+                            logToSender(sender, "&cNo run is recording!");
+                            return;
+                        }
+                        session.stop();
+                        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
+                            try {
+                                File file = session.export(new File(this.plugin.getDataFolder(), "runs"));
+                                logToSender(sender, "Exported run to &b%s", file.getPath());
+                            } catch (IOException e) {
+                                logToSender(sender, "&cFailed to export run: %s", e.getMessage());
+                            }
+                            logRunSummary(sender, session.getSummary());
+                        });
+                    })))
+            // Record traffic of real players
+            .then(new LiteralArgument("record")
+                .withPermission("stresstestbots.command.record")
+                .then(new LiteralArgument("start")
+                    .executes((sender, args) -> {
+                        if (this.traceRecorder != null && this.traceRecorder.isRunning()) {
+                            logToSender(sender, "&cAlready recording!");
+                            return;
+                        }
+                        ConfigurationSection config = this.plugin.getConfig();
+                        this.traceRecorder = new TraceRecorder(this.plugin, getTraceDirectory(),
+                            config.getBoolean("record.command-arguments", false), config.getStringList("record.skip-commands"));
+                        this.traceRecorder.start();
+                        logToSender(sender, "Started recording players to &b%s", getTraceDirectory().getPath());
+                    }))
+                .then(new LiteralArgument("status")
+                    .executes((sender, args) -> {
+                        TraceRecorder recorder = this.traceRecorder;
+                        if (recorder == null) {
+                            logToSender(sender, "&cNothing was recorded!");
+                            return;
+                        }
+                        logToSender(sender, "Recording %s&7: &b%s&7 players, &b%s&7 traces",
+                            recorder.isRunning() ? "&arunning" : "&cstopped", recorder.getRecordingPlayers(), recorder.getFileCount());
+                    }))
+                .then(new LiteralArgument("stop")
+                    .executes((sender, args) -> {
+                        TraceRecorder recorder = this.traceRecorder;
+                        if (recorder == null || !recorder.isRunning()) {
+                            logToSender(sender, "&cNot recording!");
+                            return;
+                        }
+                        recorder.stop();
+                        logToSender(sender, "Stopped recording, wrote &b%s&7 traces", recorder.getFileCount());
+                    })))
+            // Replay recorded traffic with bots
+            .then(new LiteralArgument("replay")
+                .withPermission("stresstestbots.command.replay")
+                .then(new IntegerArgument("bots", 1)
+                    .then(new DoubleArgument("time-scale", 0.01)
+                        .setOptional(true)
+                        .then(new IntegerArgument("max-offset-seconds", 0)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                int bots = (int) args.get("bots");
+                                double timeScale = (double) args.getOrDefault("time-scale", 1d);
+                                int maxOffset = (int) args.getOrDefault("max-offset-seconds", 0);
+                                startReplay(sender, bots, timeScale, maxOffset * 1000L);
+                            })))))
             // Create a bot
             .then(new LiteralArgument("create")
                 .withPermission("stresstestbots.command.create")
@@ -50,9 +316,9 @@ public class Command {
                             String name = (String) args.get("name");
                             Bot bot = this.botManager.createBot(name);
                             if (bot != null) {
-                                Logger.logToSender(sender, "Created new bot '&b" + bot.getNickname() + "&7'");
+                                logToSender(sender, "Created new bot '&b" + bot.getNickname() + "&7'");
                             } else {
-                                Logger.logToSender(sender, "&cFailed to create bot '&b" + name + "&c'");
+                                logToSender(sender, "&cFailed to create bot '&b" + name + "&c'");
                             }
                         })))
                 .then(new LiteralArgument("random")
@@ -66,9 +332,9 @@ public class Command {
                                 for (int i = 0; i < amount; i++) {
                                     Bot bot = this.botManager.createBot(null, delay * i);
                                     if (bot != null) {
-                                        Logger.logToSender(sender, "Created new bot '&b" + bot.getNickname() + "&7'");
+                                        logToSender(sender, "Created new bot '&b" + bot.getNickname() + "&7'");
                                     } else {
-                                        Logger.logToSender(sender, "&cFailed to create random bot!");
+                                        logToSender(sender, "&cFailed to create random bot!");
                                     }
                                 }
                             })))))
@@ -81,10 +347,10 @@ public class Command {
                         Collection<Entity> players = (Collection<Entity>) args.get("players");
                         assert players != null;
                         players.forEach(player -> {
-                            Bot bot = this.botManager.findBotByName(player.getName());
+                            Bot bot = this.botManager.findBot(player.getUniqueId(), player.getName());
                             if (bot != null) {
                                 this.botManager.disconnectBot(bot);
-                                Logger.logToSender(sender, "Removed bot &7'" + bot.getNickname() + "&7'");
+                                logToSender(sender, "Removed bot &7'" + bot.getNickname() + "&7'");
                             }
                         });
                     })))
@@ -99,13 +365,315 @@ public class Command {
                             Collection<Entity> players = (Collection<Entity>) args.get("players");
                             assert message != null;
                             assert players != null;
+                            List<Bot> bots = new ArrayList<>();
                             players.forEach(player -> {
-                                Bot bot = this.botManager.findBotByName(player.getName());
-                                if (bot != null) bot.sendChat(message);
+                                Bot bot = this.botManager.findBot(player.getUniqueId(), player.getName());
+                                if (bot != null) bots.add(bot);
                             });
+                            // Same message from every bot, encode it once
+                            this.botManager.broadcast(Bot.createChatPacket(message), bots);
+                        }))))
+
+            // Flood chat and commands from all bots
+            .then(new LiteralArgument("flood")
+                .withPermission("stresstestbots.command.flood")
+                .then(new LiteralArgument("start")
+                    .then(new DoubleArgument("global-rate", 0.1)
+                        .setOptional(true)
+                        .then(new DoubleArgument("per-bot-rate", 0.01)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                startFlood(sender, (Double) args.get("global-rate"), (Double) args.get("per-bot-rate"));
+                            }))))
+                .then(new LiteralArgument("status")
+                    .executes((sender, args) -> {
+                        ChatWorkload workload = this.chatWorkload;
+                        if (workload == null) {
+                            logToSender(sender, "&cNo flood was started!");
+                            return;
+                        }
+                        logToSender(sender, "Flood %s&7: &b%s&7 chats, &b%s&7 commands, bots rate limited &b%s&7 times",
+                            workload.isRunning() ? "&arunning" : "&cstopped", workload.getChatsSent(),
+                            workload.getCommandsSent(), workload.getBotLimited());
+                    }))
+                .then(new LiteralArgument("stop")
+                    .executes((sender, args) -> {
+                        ChatWorkload workload = this.chatWorkload;
+                        if (workload == null || !workload.isRunning()) {
+                            logToSender(sender, "&cNo flood is running!");
+                            return;
+                        }
+                        workload.stop();
+                        logToSender(sender, "Stopped flood after &b%s&7 chats and &b%s&7 commands",
+                            workload.getChatsSent(), workload.getCommandsSent());
+                    })))
+
+            // Hold a population of bots which keep leaving and joining
+            .then(new LiteralArgument("churn")
+                .withPermission("stresstestbots.command.churn")
+                .then(new LiteralArgument("start")
+                    .then(new IntegerArgument("bots", 1)
+                        .then(new DoubleArgument("leave-rate", 0.01)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                startChurn(sender, (int) args.get("bots"), (Double) args.get("leave-rate"));
+                            }))))
+                .then(new LiteralArgument("status")
+                    .executes((sender, args) -> {
+                        ChurnWorkload workload = this.churnWorkload;
+                        if (workload == null) {
+                            logToSender(sender, "&cNo churn was started!");
+                            return;
+                        }
+                        logToSender(sender, "Churn %s&7: &b%s&7/&b%s&7 bots, &b%s&7 joins, &b%s&7 leaves, &b%s&7 failed, &b%s&7 kicked, backoff &e%sms",
+                            workload.isRunning() ? "&arunning" : "&cstopped", workload.getPopulation(), workload.getTarget(),
+                            workload.getJoins(), workload.getLeaves(), workload.getFailed(), workload.getKicked(), workload.getBackoff());
+                    }))
+                .then(new LiteralArgument("stop")
+                    .executes((sender, args) -> {
+                        ChurnWorkload workload = this.churnWorkload;
+                        if (workload == null || !workload.isRunning()) {
+                            logToSender(sender, "&cNo churn is running!");
+                            return;
+                        }
+                        workload.stop();
+                        logToSender(sender, "Stopped churn after &b%s&7 joins and &b%s&7 leaves",
+                            workload.getJoins(), workload.getLeaves());
+                    })))
+
+            // Change how bots move around
+            .then(new LiteralArgument("behaviour")
+                .withPermission("stresstestbots.command.behaviour")
+                .then(new EntitySelectorArgument.ManyPlayers("players")
+                    .then(new LiteralArgument("random")
+                        .then(new DoubleArgument("radius", 1)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                double radius = (double) args.getOrDefault("radius", 16d);
+                                setBehaviour(sender, (Collection<Entity>) args.get("players"),
+                                    bot -> new RandomWalkBehaviour(radius, Bot.WALK_SPEED));
+                            })))
+                    .then(new LiteralArgument("orbit")
+                        .then(new DoubleArgument("radius", 1)
+                            .setOptional(true)
+                            .executes((sender, args) -> {
+                                double radius = (double) args.getOrDefault("radius", 8d);
+                                setBehaviour(sender, (Collection<Entity>) args.get("players"),
+                                    bot -> new OrbitBehaviour(bot.getX(), bot.getZ(), radius, Bot.WALK_SPEED));
+                            })))
+                    .then(new LiteralArgument("follow")
+                        .then(new EntitySelectorArgument.OnePlayer("target")
+                            .executes((sender, args) -> {
+                                Player target = (Player) args.get("target");
+                                assert target != null;
+                                Bot leader = this.botManager.findBot(target.getUniqueId());
+                                Supplier<Vector3d> position = leader != null ? null : trackPlayer(target);
+                                setBehaviour(sender, (Collection<Entity>) args.get("players"), bot -> {
+                                    if (leader != null) return FollowBehaviour.following(leader, 2, Bot.SPRINT_SPEED);
+                                    return new FollowBehaviour(position, 2, Bot.SPRINT_SPEED);
+                                });
+                            })))
+                    .then(new LiteralArgument("stop")
+                        .executes((sender, args) -> {
+                            setBehaviour(sender, (Collection<Entity>) args.get("players"), bot -> null);
                         }))));
 
         command.register();
     }
 
+    public void shutdown() {
+        // Flush traces that are still being written
+        if (this.traceRecorder != null && this.traceRecorder.isRunning()) this.traceRecorder.stop();
+    }
+
+    private void startRamp(CommandSender sender, RampProfile profile) {
+        if (this.rampController != null && this.rampController.isRunning()) {
+            logToSender(sender, "&cA ramp is already running!");
+            return;
+        }
+        int joinsPerSecond = this.plugin.getConfig().getInt("ramp-joins-per-second", 20);
+        this.rampController = new RampController(this.botManager, profile, Bukkit::getAverageTickTime, joinsPerSecond);
+        this.rampController.start();
+        logToSender(sender, "Started ramp");
+    }
+
+    private void startFlood(CommandSender sender, @Nullable Double globalRate, @Nullable Double botRate) {
+        if (this.chatWorkload != null && this.chatWorkload.isRunning()) {
+            logToSender(sender, "&cA flood is already running!");
+            return;
+        }
+        ConfigurationSection config = this.plugin.getConfig().getConfigurationSection("flood");
+        if (config == null) {
+            logToSender(sender, "&cNo flood section in config!");
+            return;
+        }
+        List<ChatTemplate> templates = new ArrayList<>();
+        for (Map<?, ?> message : config.getMapList("messages")) {
+            Object text = message.get("text");
+            Object weight = message.get("weight");
+            if (text == null) continue;
+            templates.add(new ChatTemplate(text.toString(), weight instanceof Number number ? number.intValue() : 1));
+        }
+        if (templates.isEmpty()) {
+            logToSender(sender, "&cNo flood messages in config!");
+            return;
+        }
+        double global = globalRate != null ? globalRate : config.getDouble("global-rate", 200);
+        double perBot = botRate != null ? botRate : config.getDouble("per-bot-rate", 0.5);
+        this.chatWorkload = new ChatWorkload(this.botManager, templates, global, perBot, config.getInt("per-bot-burst", 2));
+        this.chatWorkload.start();
+        logToSender(sender, "Started flood with &b%s&7 messages/s (&b%s&7/s per bot)", global, perBot);
+    }
+
+    private void startChurn(CommandSender sender, int bots, @Nullable Double leaveRate) {
+        if (this.churnWorkload != null && this.churnWorkload.isRunning()) {
+            logToSender(sender, "&cA churn is already running!");
+            return;
+        }
+        ConfigurationSection config = this.plugin.getConfig().getConfigurationSection("churn");
+        if (config == null) {
+            logToSender(sender, "&cNo churn section in config!");
+            return;
+        }
+        double leaves = leaveRate != null ? leaveRate : config.getDouble("leave-rate", 2);
+        SessionLength sessionLength;
+        try {
+            sessionLength = createSessionLength(config.getConfigurationSection("session"));
+        } catch (IllegalArgumentException e) {
+            logToSender(sender, "&cInvalid churn session: %s", e.getMessage());
+            return;
+        }
+        this.churnWorkload = new ChurnWorkload(this.botManager, bots, leaves, config.getDouble("join-rate", 20), sessionLength,
+            config.getLong("backoff.min-ms", 1000), config.getLong("backoff.max-ms", 60000));
+        this.churnWorkload.start();
+        logToSender(sender, "Started churn of &b%s&7 bots, up to &b%s&7 leaving per second", bots, leaves);
+    }
+
+    @Nullable
+    private SessionLength createSessionLength(@Nullable ConfigurationSection config) {
+        if (config == null) return null;
+        long mean = TimeUnit.SECONDS.toMillis(config.getLong("mean-seconds", 0));
+        SessionLength sessionLength = switch (config.getString("distribution", "exponential").toLowerCase(Locale.ROOT)) {
+            // Without a mean, bots leave at the leave rate
+            case "exponential" -> mean > 0 ? SessionLength.exponential(mean) : null;
+            case "lognormal" -> {
+                double sigma = config.getDouble("sigma", 1);
+                // The distribution takes the median, which is below the mean by exp(sigma^2 / 2)
+                long median = (long) ((mean > 0 ? mean : TimeUnit.MINUTES.toMillis(10)) * Math.exp(-sigma * sigma / 2));
+                yield SessionLength.logNormal(median, sigma);
+            }
+            case "uniform" -> SessionLength.uniform(TimeUnit.SECONDS.toMillis(config.getLong("min-seconds", 0)),
+                TimeUnit.SECONDS.toMillis(config.getLong("max-seconds", 0)));
+            case "fixed" -> SessionLength.fixed(mean);
+            default -> throw new IllegalArgumentException("Unknown distribution " + config.getString("distribution"));
+        };
+        if (sessionLength == null) return null;
+        long min = TimeUnit.SECONDS.toMillis(config.getLong("min-seconds", 0));
+        long max = config.getLong("max-seconds", 0) > 0 ? TimeUnit.SECONDS.toMillis(config.getLong("max-seconds")) : Long.MAX_VALUE;
+        return sessionLength.clamp(min, max);
+    }
+
+    private File getTraceDirectory() {
+        return new File(this.plugin.getDataFolder(), "traces");
+    }
+
+    private void startReplay(CommandSender sender, int bots, double timeScale, long maxOffset) {
+        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
+            List<Trace> traces;
+            try {
+                traces = Trace.readAll(getTraceDirectory());
+            } catch (IOException e) {
+                logToSender(sender, "&cFailed to read traces: %s", e.getMessage());
+                return;
+            }
+            if (traces.isEmpty()) {
+                logToSender(sender, "&cNo traces were recorded, use &b/stress record start&c first!");
+                return;
+            }
+            int joinsPerSecond = Math.max(1, this.plugin.getConfig().getInt("ramp-joins-per-second", 20));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < bots; i++) {
+                Bot bot = this.botManager.createBot(null, i * 20L / joinsPerSecond);
+                if (bot == null) continue;
+                // Spread the traces over the bots, each starting at a random offset
+                Trace trace = traces.get(i % traces.size());
+                long offset = maxOffset > 0 ? random.nextLong(maxOffset) : 0;
+                bot.setBehaviour(new TraceReplayBehaviour(trace, timeScale, offset));
+            }
+            logToSender(sender, "Replaying &b%s&7 traces with &b%s&7 bots at &b%sx&7 speed", traces.size(), bots, timeScale);
+        });
+    }
+
+    private void logLatency(CommandSender sender, LatencyStats stats) {
+        for (LatencyType type : LatencyType.values()) {
+            LatencyHistogram histogram = stats.get(type);
+            // Login phases are only recorded globally
+            if (histogram.getCount() == 0) continue;
+            logToSender(sender, "- %s: &b%s&7 samples, p50 &e%.1fms&7, p99 &e%.1fms&7, p999 &e%.1fms",
+                type.name().toLowerCase(), histogram.getCount(), histogram.getPercentile(0.5),
+                histogram.getPercentile(0.99), histogram.getPercentile(0.999));
+        }
+    }
+
+    private void logRunSummary(CommandSender sender, JSONObject summary) {
+        logToSender(sender, "Run: &b%s&7 ticks, max bots &b%s&7, max heap &b%sMB&7, GC &b%sms",
+            summary.get("ticks"), summary.get("max_bots"), summary.get("max_heap_mb"), summary.get("total_gc_ms"));
+        JSONObject mspt = (JSONObject) summary.get("mspt");
+        if (mspt != null) {
+            logToSender(sender, "MSPT: p50 &e%.2f&7, p90 &e%.2f&7, p99 &e%.2f&7, max &e%.2f",
+                mspt.get("p50"), mspt.get("p90"), mspt.get("p99"), mspt.get("max"));
+        }
+        Object overloaded = summary.get("overloaded_at_bots");
+        if (overloaded != null && (int) overloaded >= 0) {
+            logToSender(sender, "&cMSPT went over 50ms at &b%s&c bots", overloaded);
+        }
+    }
+
+    private void setBehaviour(CommandSender sender, Collection<Entity> players, Function<Bot, BotBehaviour> behaviour) {
+        assert players != null;
+        int count = 0;
+        for (Entity player : players) {
+            Bot bot = this.botManager.findBot(player.getUniqueId(), player.getName());
+            if (bot == null) continue;
+            bot.setBehaviour(behaviour.apply(bot));
+            count++;
+        }
+        logToSender(sender, "Changed behaviour of &b%s&7 bots", count);
+    }
+
+    // Bot behaviours run off the main thread, so player positions are copied once per tick
+    // One tracker per player, shared by all bots following them
+    private Supplier<Vector3d> trackPlayer(Player player) {
+        return this.playerTrackers.computeIfAbsent(player.getUniqueId(), uuid -> {
+            AtomicReference<Vector3d> position = new AtomicReference<>(toVector(player.getLocation()));
+            Supplier<Vector3d> tracker = position::get;
+            Bukkit.getScheduler().runTaskTimer(this.plugin, task -> {
+                // Stop once the player left or no bot follows them anymore, checked once a second
+                if (!player.isOnline() || (Bukkit.getCurrentTick() % 20 == 0 && !isFollowed(tracker))) {
+                    position.set(null);
+                    this.playerTrackers.remove(uuid);
+                    task.cancel();
+                    return;
+                }
+                position.set(toVector(player.getLocation()));
+            }, 1, 1);
+            return tracker;
+        });
+    }
+
+    private boolean isFollowed(Supplier<Vector3d> tracker) {
+        for (Bot bot : this.botManager.getBots()) {
+            if (bot.getBehaviour() instanceof FollowBehaviour follow && follow.getTarget() == tracker) return true;
+        }
+        return false;
+    }
+
+    private static Vector3d toVector(Location location) {
+        return Vector3d.from(location.getX(), location.getY(), location.getZ());
+    }
+
+    private static void logToSender(CommandSender sender, String format, Object... objects) {
+        sender.sendMessage(Logger.format(format, objects));
+    }
+
 }
@@ -1,17 +1,20 @@
 package com.shanebeestudios.stress;
 
-import com.destroystokyo.paper.profile.PlayerProfile;
-import com.shanebeestudios.stress.api.util.Utils;
-import org.bukkit.Bukkit;
+import com.shanebeestudios.stress.ProfileCache.CachedProfile;
+import com.shanebeestudios.stress.api.util.Logger;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @hidden
@@ -19,20 +22,38 @@ import java.util.UUID;
 @SuppressWarnings({"FieldCanBeLocal", "unused"})
 public class PlayerListener implements Listener {
 
+    // Max time a real player waits for their profile
+    private static final long LOOKUP_TIMEOUT = 5000;
+
     private final StressTestBots plugin;
-    private final Map<UUID, PlayerProfile> profileMap = new HashMap<>();
+    private final ProfileCache profileCache;
+    private final Map<UUID, CachedProfile> profileMap = new ConcurrentHashMap<>();
 
-    public PlayerListener(StressTestBots plugin) {
+    public PlayerListener(StressTestBots plugin, ProfileCache profileCache) {
         this.plugin = plugin;
+        this.profileCache = profileCache;
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR)
     private void onPreJoin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
         String name = event.getName();
-        UUID uuid = Utils.nameToUUID(name);
-        if (uuid != null) {
-            PlayerProfile profile = Bukkit.createProfile(uuid, name);
-            profile.complete(true, true);
+        CachedProfile profile;
+        if (this.plugin.getBotManager().findBot(event.getUniqueId()) != null) {
+            // Bots only use cached profiles, they never cause a lookup
+            profile = this.profileCache.getCached(name);
+        } else {
+            try {
+                profile = this.profileCache.resolve(name).get(LOOKUP_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                Logger.warn("Failed to look up profile of '&b%s&e': %s", name, e.getMessage());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (profile != null && profile.exists()) {
             this.profileMap.put(event.getUniqueId(), profile);
         }
     }
@@ -40,10 +61,9 @@ public class PlayerListener implements Listener {
     @EventHandler
     private void onJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        UUID uuid = player.getUniqueId();
-        if (this.profileMap.containsKey(uuid)) {
-            player.setPlayerProfile(this.profileMap.get(uuid));
-            this.profileMap.remove(uuid);
+        CachedProfile profile = this.profileMap.remove(player.getUniqueId());
+        if (profile != null) {
+            player.setPlayerProfile(profile.toPlayerProfile(player.getName()));
         }
     }
 
@@ -0,0 +1,230 @@
+package com.shanebeestudios.stress;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache of profiles (UUID and skin) of player names, looked up from Mojang
+ * <p>Lookups run on their own threads and are shared by everyone asking for the same name.
+ * Names without a profile are cached too, for a shorter time, failed lookups are not. The cache is saved to disk,
+ * so later runs don't have to look up the same names again.</p>
+ *
+ * @hidden
+ */
+@SuppressWarnings("unused")
+public class ProfileCache {
+
+    // Few threads, Mojang rate limits lookups
+    private static final int LOOKUP_THREADS = 2;
+
+    private final File file;
+    private final long ttl;
+    private final long negativeTtl;
+    private final boolean lookups;
+    private final Map<String, CachedProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedProfile>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(LOOKUP_THREADS, r -> {
+        Thread thread = new Thread(r, "StressTestBots-Profiles");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param file        File the cache is saved to
+     * @param ttl         Time in milliseconds a profile is kept
+     * @param negativeTtl Time in milliseconds a name without profile is kept
+     * @param lookups     Whether to look up names, false only uses cached profiles
+     */
+    public ProfileCache(File file, long ttl, long negativeTtl, boolean lookups) {
+        this.file = file;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.lookups = lookups;
+    }
+
+    /**
+     * Get a cached profile without looking it up
+     *
+     * @param name Name of player
+     * @return Profile or null if not cached or expired
+     */
+    @Nullable
+    public CachedProfile getCached(String name) {
+        CachedProfile profile = this.profiles.get(key(name));
+        if (profile == null || isExpired(profile, System.currentTimeMillis())) return null;
+        return profile;
+    }
+
+    /**
+     * Get a profile, looking it up if not cached
+     *
+     * @param name Name of player
+     * @return Future completed with the profile, or an empty profile if the name has none
+     */
+    public CompletableFuture<CachedProfile> resolve(String name) {
+        CachedProfile cached = getCached(name);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        if (!this.lookups) return CompletableFuture.completedFuture(CachedProfile.EMPTY);
+        String key = key(name);
+        // One lookup per name, no matter how many ask for it
+        return this.pending.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> lookup(name), this.executor)
+            .whenComplete((profile, throwable) -> {
+                // Failed lookups are not cached, the name is looked up again next time
+                if (profile != null && profile != CachedProfile.EMPTY) this.profiles.put(key, profile);
+                this.pending.remove(key);
+            }));
+    }
+
+    private CachedProfile lookup(String name) {
+        long now = System.currentTimeMillis();
+        UUID uuid;
+        try {
+            uuid = Utils.lookupUUID(name);
+        } catch (IOException e) {
+            // Not a missing profile, ie: rate limited or no connection
+            return CachedProfile.EMPTY;
+        }
+        if (uuid == null) return new CachedProfile(null, null, null, now);
+        PlayerProfile profile = Bukkit.createProfile(uuid, name);
+        profile.complete(true, true);
+        for (ProfileProperty property : profile.getProperties()) {
+            if (property.getName().equals("textures")) {
+                return new CachedProfile(uuid, property.getValue(), property.getSignature(), now);
+            }
+        }
+        return new CachedProfile(uuid, null, null, now);
+    }
+
+    /**
+     * Load the cache from disk, expired profiles are skipped
+     */
+    public void load() {
+        if (!this.file.exists()) return;
+        long now = System.currentTimeMillis();
+        try (Reader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+            JSONObject json = (JSONObject) new JSONParser().parse(reader);
+            for (Object key : json.keySet()) {
+                JSONObject entry = (JSONObject) json.get(key);
+                String uuid = (String) entry.get("uuid");
+                CachedProfile profile = new CachedProfile(uuid != null ? UUID.fromString(uuid) : null,
+                    (String) entry.get("textures"), (String) entry.get("signature"), (long) entry.get("time"));
+                if (!isExpired(profile, now)) this.profiles.put((String) key, profile);
+            }
+            Logger.info("Loaded &b%s&7 cached profiles", this.profiles.size());
+        } catch (IOException | ParseException | RuntimeException e) {
+            Logger.error("Failed to load profile cache: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Save the cache to disk
+     */
+    @SuppressWarnings("unchecked")
+    public void save() {
+        JSONObject json = new JSONObject();
+        long now = System.currentTimeMillis();
+        this.profiles.forEach((key, profile) -> {
+            if (isExpired(profile, now)) return;
+            JSONObject entry = new JSONObject();
+            if (profile.uuid() != null) entry.put("uuid", profile.uuid().toString());
+            if (profile.textures() != null) entry.put("textures", profile.textures());
+            if (profile.signature() != null) entry.put("signature", profile.signature());
+            entry.put("time", profile.resolvedAt());
+            json.put(key, entry);
+        });
+        // Write next to the old file first, so a crash never leaves half a cache
+        File temp = new File(this.file.getPath() + ".tmp");
+        try {
+            Files.createDirectories(temp.toPath().getParent());
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                json.writeJSONString(writer);
+            }
+            Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Logger.error("Failed to save profile cache: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop running lookups and save the cache
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+        save();
+    }
+
+    /**
+     * Get the amount of cached profiles
+     *
+     * @return Cached profiles, including names without profile
+     */
+    public int size() {
+        return this.profiles.size();
+    }
+
+    private boolean isExpired(CachedProfile profile, long now) {
+        return now - profile.resolvedAt() > (profile.uuid() != null ? this.ttl : this.negativeTtl);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Profile of a player name
+     *
+     * @param uuid       Mojang UUID, null if the name has no profile
+     * @param textures   Skin textures, null if unknown
+     * @param signature  Signature of textures
+     * @param resolvedAt Time the profile was looked up
+     */
+    public record CachedProfile(@Nullable UUID uuid, @Nullable String textures, @Nullable String signature, long resolvedAt) {
+
+        private static final CachedProfile EMPTY = new CachedProfile(null, null, null, 0);
+
+        /**
+         * Check if the name has a profile
+         *
+         * @return True if there is a profile
+         */
+        public boolean exists() {
+            return this.uuid != null;
+        }
+
+        /**
+         * Create a player profile from this profile
+         *
+         * @param name Name of player
+         * @return Player profile with textures
+         */
+        public PlayerProfile toPlayerProfile(String name) {
+            PlayerProfile profile = Bukkit.createProfile(this.uuid, name);
+            if (this.textures != null) profile.setProperty(new ProfileProperty("textures", this.textures, this.signature));
+            return profile;
+        }
+
+    }
+
+}
@@ -1,15 +1,26 @@
 package com.shanebeestudios.stress;
 
 import com.shanebeestudios.stress.api.bot.BotManager;
+import com.shanebeestudios.stress.api.network.PacketFilter;
+import com.shanebeestudios.stress.api.server.MainThreadBridge;
 import com.shanebeestudios.stress.api.util.Logger;
+import com.shanebeestudios.stress.api.util.Utils;
+import com.shanebeestudios.stress.api.world.PassableStates;
 import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPIPaperConfig;
 import dev.jorel.commandapi.exceptions.UnsupportedVersionException;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.UnknownHostException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main plugin class
@@ -20,12 +31,16 @@ public class StressTestBots extends JavaPlugin {
     private static StressTestBots instance;
     private boolean commandApiCanLoad;
     private BotManager botManager;
+    private BukkitPlatform platform;
+    private Command command;
+    private ProfileCache profileCache;
 
     /**
      * @hidden
      */
     @Override
     public void onLoad() {
+        Logger.setHandler(new BukkitLogHandler());
         if (Bukkit.getOnlineMode()) {
             // Don't load CommandAPI
             return;
@@ -58,6 +73,7 @@ public class StressTestBots extends JavaPlugin {
         }
 
         instance = this;
+        saveDefaultConfig();
 
         if (!this.commandApiCanLoad) {
             Logger.error("CommandAPI could not be loaded, plugin disabling!");
@@ -85,6 +101,10 @@ public class StressTestBots extends JavaPlugin {
     @Override
     public void onDisable() {
         Bukkit.getScheduler().cancelTasks(this);
+        if (this.command != null) this.command.shutdown();
+        if (this.botManager != null) this.botManager.shutdown();
+        if (this.profileCache != null) this.profileCache.shutdown();
+        if (this.platform != null) this.platform.getMainThreadBridge().stop();
         if (!Bukkit.getOnlineMode()) CommandAPI.onDisable();
         instance = null;
     }
@@ -96,13 +116,49 @@ public class StressTestBots extends JavaPlugin {
     }
 
     private void setupBotLogic() {
-        this.botManager = new BotManager();
+        MainThreadBridge bridge = new MainThreadBridge(getConfig().getLong("main-thread-budget-ms", 2), TimeUnit.MILLISECONDS);
+        this.platform = new BukkitPlatform(bridge);
+        this.botManager = new BotManager(3000, true, Utils.createInetAddress(getServerAddress(), Bukkit.getPort()),
+            "plugins/StressTestBots/nicks.txt", "", getConfig().getInt("packet-threads", 0), this.platform);
+        this.botManager.getLifecycleLog().setVerbose(getConfig().getBoolean("verbose-bot-logging", false));
+        int maxLogins = getConfig().getInt("max-logins-in-flight", 16);
+        if (maxLogins > 0) this.botManager.getLoginPipeline().setMaxInFlight(maxLogins);
+        try {
+            this.botManager.setPacketFilter(PacketFilter.fromNames(getConfig().getStringList("skip-packets")));
+        } catch (IllegalArgumentException e) {
+            Logger.error("Invalid skip-packets in config: %s", e.getMessage());
+        }
+        String blockReport = getConfig().getString("block-report", "");
+        if (!blockReport.isEmpty()) {
+            try {
+                PassableStates passableStates = PassableStates.load(Path.of(blockReport));
+                this.botManager.getHeightmapCache().setPassableStates(passableStates);
+                Logger.info("Loaded &b%s&7 passable block states", passableStates.size());
+            } catch (IOException | InvalidPathException e) {
+                Logger.error("Invalid block-report in config: %s", e.getMessage());
+            }
+        }
+        bridge.start(this);
+    }
+
+    private String getServerAddress() {
+        try {
+            return Inet4Address.getLocalHost().getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private void setupCommand() {
         CommandAPI.onEnable();
-        new Command(this);
-        Bukkit.getPluginManager().registerEvents(new PlayerListener(this), this);
+        this.command = new Command(this);
+        ConfigurationSection profiles = getConfig().getConfigurationSection("profiles");
+        this.profileCache = new ProfileCache(new File(getDataFolder(), "profiles.json"),
+            TimeUnit.HOURS.toMillis(profiles != null ? profiles.getLong("ttl-hours", 24) : 24),
+            TimeUnit.MINUTES.toMillis(profiles != null ? profiles.getLong("negative-ttl-minutes", 60) : 60),
+            profiles == null || profiles.getBoolean("lookups", true));
+        this.profileCache.load();
+        Bukkit.getPluginManager().registerEvents(new PlayerListener(this, this.profileCache), this);
     }
 
     /**
@@ -124,4 +180,13 @@ public class StressTestBots extends JavaPlugin {
         return this.botManager;
     }
 
+    /**
+     * Get the bridge used to query the Bukkit API on the main thread
+     *
+     * @return Main thread bridge
+     */
+    public MainThreadBridge getMainThreadBridge() {
+        return this.platform.getMainThreadBridge();
+    }
+
 }
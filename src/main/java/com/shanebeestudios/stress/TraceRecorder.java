@@ -0,0 +1,182 @@
+package com.shanebeestudios.stress;
+
+import com.shanebeestudios.stress.api.trace.TraceWriter;
+import com.shanebeestudios.stress.api.util.Logger;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerAnimationEvent;
+import org.bukkit.event.player.PlayerAnimationType;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records traffic of real players into trace files, to replay with bots later
+ * <p>Each player session gets its own file, player names are not stored.
+ * Command arguments are only stored when enabled, and sensitive commands are never stored.</p>
+ *
+ * @hidden
+ */
+@SuppressWarnings("unused")
+public class TraceRecorder implements Listener {
+
+    private final StressTestBots plugin;
+    private final File directory;
+    private final Map<UUID, TraceWriter> writers = new ConcurrentHashMap<>();
+    private final AtomicInteger fileCount = new AtomicInteger();
+    private final String prefix = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    private final boolean commandArguments;
+    private final Set<String> skipCommands = new HashSet<>();
+    private volatile boolean running;
+
+    /**
+     * @param plugin           Plugin to register events with
+     * @param directory        Directory to write traces to
+     * @param commandArguments Whether to store the arguments of commands
+     * @param skipCommands     Commands which are never stored, ie: /login
+     */
+    public TraceRecorder(StressTestBots plugin, File directory, boolean commandArguments, Collection<String> skipCommands) {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.commandArguments = commandArguments;
+        for (String command : skipCommands) {
+            this.skipCommands.add(command.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void start() {
+        this.running = true;
+        Bukkit.getPluginManager().registerEvents(this, this.plugin);
+    }
+
+    public void stop() {
+        this.running = false;
+        HandlerList.unregisterAll(this);
+        this.writers.keySet().forEach(this::close);
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    public int getRecordingPlayers() {
+        return this.writers.size();
+    }
+
+    public int getFileCount() {
+        return this.fileCount.get();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+        write(event.getPlayer(), writer -> writer.writeMove(to.getX(), to.getY(), to.getZ(), to.getYaw(), to.getPitch(),
+            event.getPlayer().isOnGround()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onChat(AsyncChatEvent event) {
+        String message = PlainTextComponentSerializer.plainText().serialize(event.originalMessage());
+        write(event.getPlayer(), writer -> writer.writeChat(message));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onCommand(PlayerCommandPreprocessEvent event) {
+        String command = event.getMessage().substring(1);
+        int space = command.indexOf(' ');
+        String label = space < 0 ? command : command.substring(0, space);
+        // Namespaced commands, ie: /authme:login
+        String name = label.substring(label.indexOf(':') + 1).toLowerCase(Locale.ROOT);
+        if (this.skipCommands.contains(name)) return;
+        String recorded = this.commandArguments ? command : label;
+        write(event.getPlayer(), writer -> writer.writeCommand(recorded));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onSwing(PlayerAnimationEvent event) {
+        if (event.getAnimationType() != PlayerAnimationType.ARM_SWING) return;
+        write(event.getPlayer(), TraceWriter::writeSwing);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onHeldItem(PlayerItemHeldEvent event) {
+        write(event.getPlayer(), writer -> writer.writeHeldItem(event.getNewSlot()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onInteract(PlayerInteractEvent event) {
+        Action action = event.getAction();
+        if (action != Action.RIGHT_CLICK_AIR && action != Action.RIGHT_CLICK_BLOCK) return;
+        write(event.getPlayer(), TraceWriter::writeUseItem);
+    }
+
+    @EventHandler
+    private void onQuit(PlayerQuitEvent event) {
+        close(event.getPlayer().getUniqueId());
+    }
+
+    private void write(Player player, TraceAction action) {
+        UUID uuid = player.getUniqueId();
+        // Only record real players
+        if (this.plugin.getBotManager().findBot(uuid) != null) return;
+        TraceWriter writer = this.writers.computeIfAbsent(uuid, key -> {
+            // Async chat may still come in after stopping
+            if (!this.running) return null;
+            File file = new File(this.directory, this.prefix + "-" + this.fileCount.incrementAndGet() + ".stbt");
+            try {
+                return new TraceWriter(file);
+            } catch (IOException e) {
+                Logger.error("Failed to create trace file %s: %s", file.getPath(), e.getMessage());
+                return null;
+            }
+        });
+        if (writer == null) return;
+        try {
+            action.write(writer);
+        } catch (IOException e) {
+            Logger.error("Failed to write trace: %s", e.getMessage());
+            close(uuid);
+        }
+        // Stopped while writing, stop() may have missed a writer created meanwhile
+        if (!this.running) close(uuid);
+    }
+
+    private void close(UUID uuid) {
+        TraceWriter writer = this.writers.remove(uuid);
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            Logger.error("Failed to close trace: %s", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface TraceAction {
+        void write(TraceWriter writer) throws IOException;
+    }
+
+}
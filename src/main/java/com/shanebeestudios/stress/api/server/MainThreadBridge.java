@@ -0,0 +1,206 @@
+package com.shanebeestudios.stress.api.server;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bridge to run bot queries against the Bukkit API on the main thread
+ * <p>Queries can be queued from any thread, they are all drained by one task per tick
+ * which stops once the time budget for that tick is used up.</p>
+ * <p>Futures are completed in bulk off the main thread, so callbacks never add main thread load.</p>
+ */
+@SuppressWarnings("unused")
+public class MainThreadBridge {
+
+    private final Queue<Request<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Executor completionExecutor = ForkJoinPool.commonPool();
+    private final long budgetNanos;
+    private BukkitTask task;
+
+    // Stats, written on the main thread only
+    private volatile long lastTickNanos;
+    private volatile int lastTickCompleted;
+    private volatile double averageTickNanos;
+    private volatile long totalCompleted;
+
+    /**
+     * Create a new main thread bridge
+     *
+     * @param budget Max time to spend on queries each tick
+     * @param unit   Unit of budget
+     */
+    public MainThreadBridge(long budget, TimeUnit unit) {
+        this.budgetNanos = unit.toNanos(budget);
+    }
+
+    /**
+     * Start draining queries every tick
+     *
+     * @param plugin Plugin to run the task for
+     */
+    public void start(Plugin plugin) {
+        if (this.task != null) return;
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1, 1);
+    }
+
+    /**
+     * Stop draining queries
+     * <p>Queries which are still queued will not complete</p>
+     */
+    public void stop() {
+        if (this.task == null) return;
+        this.task.cancel();
+        this.task = null;
+    }
+
+    /**
+     * Queue a query to run on the main thread
+     * <p>If called from the main thread the query runs right away</p>
+     *
+     * @param query Query to run
+     * @param <T>   Type of result
+     * @return Future completed with the result of the query
+     */
+    public <T> CompletableFuture<T> query(Supplier<T> query) {
+        if (Bukkit.isPrimaryThread()) {
+            try {
+                return CompletableFuture.completedFuture(query.get());
+            } catch (Throwable throwable) {
+                return CompletableFuture.failedFuture(throwable);
+            }
+        }
+        Request<T> request = new Request<>(query);
+        this.queueDepth.incrementAndGet();
+        this.queue.add(request);
+        return request.future;
+    }
+
+    /**
+     * Queue a task to run on the main thread
+     * <p>If called from the main thread the task runs right away</p>
+     *
+     * @param task Task to run
+     * @return Future completed once the task ran
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return query(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the amount of queries waiting to run
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Get the time spent on queries in the last tick
+     *
+     * @return Last tick cost in milliseconds
+     */
+    public double getLastTickCost() {
+        return this.lastTickNanos / 1_000_000d;
+    }
+
+    /**
+     * Get the average time spent on queries per tick
+     *
+     * @return Average tick cost in milliseconds
+     */
+    public double getAverageTickCost() {
+        return this.averageTickNanos / 1_000_000d;
+    }
+
+    /**
+     * Get the amount of queries completed in the last tick
+     *
+     * @return Queries completed in last tick
+     */
+    public int getLastTickCompleted() {
+        return this.lastTickCompleted;
+    }
+
+    /**
+     * Get the total amount of queries completed
+     *
+     * @return Total queries completed
+     */
+    public long getTotalCompleted() {
+        return this.totalCompleted;
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        long deadline = start + this.budgetNanos;
+        List<Request<?>> completed = null;
+        Request<?> request;
+        // Always run at least one query, so the queue keeps moving with a tiny budget
+        while ((request = this.queue.poll()) != null) {
+            this.queueDepth.decrementAndGet();
+            request.run();
+            if (completed == null) completed = new ArrayList<>();
+            completed.add(request);
+            if (System.nanoTime() >= deadline) break;
+        }
+        long cost = System.nanoTime() - start;
+        this.lastTickNanos = cost;
+        this.averageTickNanos = this.averageTickNanos * 0.95 + cost * 0.05;
+        if (completed == null) {
+            this.lastTickCompleted = 0;
+            return;
+        }
+        this.lastTickCompleted = completed.size();
+        this.totalCompleted += completed.size();
+
+        List<Request<?>> toComplete = completed;
+        this.completionExecutor.execute(() -> toComplete.forEach(Request::complete));
+    }
+
+    private static class Request<T> {
+
+        private final Supplier<T> query;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private Request(Supplier<T> query) {
+            this.query = query;
+        }
+
+        private void run() {
+            try {
+                this.result = this.query.get();
+            } catch (Throwable throwable) {
+                this.error = throwable;
+            }
+        }
+
+        private void complete() {
+            if (this.error != null) {
+                this.future.completeExceptionally(this.error);
+            } else {
+                this.future.complete(this.result);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.shanebeestudios.stress.api.server;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.shanebeestudios.stress.api.bot.BotManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the health of the server for the duration of a stress run
+ * <p>Every tick the tick time, heap, GC pauses, loaded chunks, entities and bot count are stored
+ * in a preallocated ring buffer, which can be exported as CSV and JSON afterward.</p>
+ */
+@SuppressWarnings({"unused", "unchecked"})
+public class RunSession implements Listener {
+
+    private static final double MAX_MSPT = 50;
+    // Amount of ticks to average before checking if the server is overloaded
+    private static final int ROLLING_TICKS = 20;
+    private static final int BOT_BUCKET_SIZE = 50;
+
+    private final BotManager botManager;
+    private final int capacity;
+    private final long[] time;
+    private final double[] mspt;
+    private final long[] heapUsed;
+    private final long[] gcMillis;
+    private final int[] chunks;
+    private final int[] entities;
+    private final int[] bots;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private long samples;
+    private long lastGcTime;
+    private long startTime;
+    private long stopTime;
+    private boolean running;
+
+    /**
+     * Create a new run session
+     *
+     * @param botManager Bot manager to take the bot count from
+     * @param capacity   Max amount of ticks to keep, older ticks are overwritten
+     */
+    public RunSession(BotManager botManager, int capacity) {
+        this.botManager = botManager;
+        this.capacity = capacity;
+        this.time = new long[capacity];
+        this.mspt = new double[capacity];
+        this.heapUsed = new long[capacity];
+        this.gcMillis = new long[capacity];
+        this.chunks = new int[capacity];
+        this.entities = new int[capacity];
+        this.bots = new int[capacity];
+    }
+
+    /**
+     * Start sampling every tick
+     *
+     * @param plugin Plugin to register the tick listener for
+     */
+    public void start(Plugin plugin) {
+        if (this.running) return;
+        this.running = true;
+        this.startTime = System.currentTimeMillis();
+        this.lastGcTime = totalGcTime();
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Stop sampling
+     */
+    public void stop() {
+        if (!this.running) return;
+        this.running = false;
+        this.stopTime = System.currentTimeMillis();
+        HandlerList.unregisterAll(this);
+    }
+
+    /**
+     * Check if this session is still sampling
+     *
+     * @return True if running
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Get the amount of ticks currently stored
+     *
+     * @return Amount of stored ticks
+     */
+    public int getSampleCount() {
+        return (int) Math.min(this.samples, this.capacity);
+    }
+
+    @EventHandler
+    private void onTickEnd(ServerTickEndEvent event) {
+        int index = (int) (this.samples % this.capacity);
+        this.time[index] = System.currentTimeMillis();
+        this.mspt[index] = event.getTickDuration();
+        Runtime runtime = Runtime.getRuntime();
+        this.heapUsed[index] = runtime.totalMemory() - runtime.freeMemory();
+
+        long gcTime = totalGcTime();
+        this.gcMillis[index] = gcTime - this.lastGcTime;
+        this.lastGcTime = gcTime;
+
+        int chunks = 0;
+        int entities = 0;
+        for (World world : Bukkit.getWorlds()) {
+            chunks += world.getChunkCount();
+            entities += world.getEntityCount();
+        }
+        this.chunks[index] = chunks;
+        this.entities[index] = entities;
+        this.bots[index] = this.botManager.getRegistry().size();
+        this.samples++;
+    }
+
+    private long totalGcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gcBean : this.gcBeans) {
+            total += Math.max(0, gcBean.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Index in the ring buffer of the nth stored sample, oldest first
+    private int index(int sample) {
+        long first = Math.max(0, this.samples - this.capacity);
+        return (int) ((first + sample) % this.capacity);
+    }
+
+    /**
+     * Create a summary of this run
+     * <p>Includes MSPT percentiles overall and per bot count,
+     * as well as the bot count at which the average MSPT first went over 50ms</p>
+     *
+     * @return Summary as JSON object
+     */
+    public JSONObject getSummary() {
+        int count = getSampleCount();
+        JSONObject summary = new JSONObject();
+        summary.put("start", this.startTime);
+        summary.put("end", this.running ? System.currentTimeMillis() : this.stopTime);
+        summary.put("ticks", count);
+        if (count == 0) return summary;
+
+        double[] sorted = new double[count];
+        long maxHeap = 0;
+        long totalGc = 0;
+        int maxBots = 0;
+        int overloadedBots = -1;
+        double rolling = 0;
+        Map<Integer, Integer> bucketSizes = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            bucketSizes.merge(this.bots[index(i)] / BOT_BUCKET_SIZE * BOT_BUCKET_SIZE, 1, Integer::sum);
+        }
+        Map<Integer, double[]> buckets = new TreeMap<>();
+        bucketSizes.forEach((bucket, size) -> buckets.put(bucket, new double[size]));
+        Map<Integer, Integer> bucketFill = new TreeMap<>();
+
+        for (int i = 0; i < count; i++) {
+            int index = index(i);
+            double mspt = this.mspt[index];
+            sorted[i] = mspt;
+            maxHeap = Math.max(maxHeap, this.heapUsed[index]);
+            totalGc += this.gcMillis[index];
+            maxBots = Math.max(maxBots, this.bots[index]);
+
+            rolling += mspt;
+            if (i >= ROLLING_TICKS) rolling -= this.mspt[index(i - ROLLING_TICKS)];
+            if (overloadedBots < 0 && i >= ROLLING_TICKS - 1 && rolling / ROLLING_TICKS > MAX_MSPT) {
+                overloadedBots = this.bots[index];
+            }
+
+            int bucket = this.bots[index] / BOT_BUCKET_SIZE * BOT_BUCKET_SIZE;
+            int fill = bucketFill.merge(bucket, 1, Integer::sum);
+            buckets.get(bucket)[fill - 1] = mspt;
+        }
+        Arrays.sort(sorted);
+
+        summary.put("mspt", percentiles(sorted, count));
+        summary.put("max_heap_mb", maxHeap / 1024 / 1024);
+        summary.put("total_gc_ms", totalGc);
+        summary.put("max_bots", maxBots);
+        summary.put("overloaded_at_bots", overloadedBots);
+
+        JSONArray perBots = new JSONArray();
+        buckets.forEach((bucket, values) -> {
+            Arrays.sort(values);
+            JSONObject entry = percentiles(values, values.length);
+            entry.put("bots", bucket);
+            entry.put("ticks", values.length);
+            perBots.add(entry);
+        });
+        summary.put("mspt_by_bots", perBots);
+        return summary;
+    }
+
+    private static JSONObject percentiles(double[] sorted, int size) {
+        JSONObject object = new JSONObject();
+        object.put("p50", percentile(sorted, size, 0.5));
+        object.put("p90", percentile(sorted, size, 0.9));
+        object.put("p99", percentile(sorted, size, 0.99));
+        object.put("max", sorted[size - 1]);
+        return object;
+    }
+
+    private static double percentile(double[] sorted, int size, double percentile) {
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * Export all stored ticks as CSV and the summary as JSON
+     * <p>This does file IO, don't call it on the main thread</p>
+     *
+     * @param folder Folder to write files to
+     * @return CSV file which was written, the JSON file has the same name
+     * @throws IOException If files could not be written
+     */
+    public File export(File folder) throws IOException {
+        Files.createDirectories(folder.toPath());
+        String name = "run-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(this.startTime));
+        File csv = new File(folder, name + ".csv");
+        try (PrintWriter writer = new PrintWriter(csv, StandardCharsets.UTF_8)) {
+            writer.println("time,mspt,heap_used,gc_ms,chunks,entities,bots");
+            int count = getSampleCount();
+            for (int i = 0; i < count; i++) {
+                int index = index(i);
+                writer.printf(Locale.ROOT, "%d,%.3f,%d,%d,%d,%d,%d%n", this.time[index], this.mspt[index], this.heapUsed[index],
+                    this.gcMillis[index], this.chunks[index], this.entities[index], this.bots[index]);
+            }
+        }
+        Files.writeString(new File(folder, name + ".json").toPath(), getSummary().toJSONString(), StandardCharsets.UTF_8);
+        return csv;
+    }
+
+}